@@ -27,6 +27,7 @@ import org.primefaces.component.api.MultiViewStateAware;
 import org.primefaces.context.PrimeApplicationContext;
 import org.primefaces.context.PrimeRequestContext;
 import org.primefaces.model.DialogFrameworkOptions;
+import org.primefaces.multiviewstate.MultiViewStateKey;
 import org.primefaces.util.ComponentUtils;
 import org.primefaces.util.Constants;
 import org.primefaces.util.EscapeUtils;
@@ -40,13 +41,10 @@ import javax.faces.component.UIComponent;
 import javax.faces.component.UIInput;
 import javax.faces.component.UIViewRoot;
 import javax.faces.component.visit.VisitContext;
-import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
 import javax.faces.context.PartialViewContext;
-import javax.faces.lifecycle.ClientWindow;
 import java.io.Serializable;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.logging.Level;
@@ -432,11 +430,12 @@ public class PrimeFaces {
          */
         public void clearAll(boolean reset, Consumer<String> clientIdConsumer) {
             if (reset || clientIdConsumer != null) {
-                Set<MVSKey> keys = Collections.unmodifiableSet(getMVSKeys());
+                Set<MultiViewStateKey> keys = Collections.unmodifiableSet(getMVSKeys());
                 clearMVSKeys(keys, reset, clientIdConsumer);
             }
 
-            getFacesContext().getExternalContext().getSessionMap().remove(Constants.MULTI_VIEW_STATES);
+            FacesContext fc = getFacesContext();
+            PrimeApplicationContext.getCurrentInstance(fc).getMultiViewStateStore().clear(fc);
         }
 
         /**
@@ -457,8 +456,8 @@ public class PrimeFaces {
          * @param clientIdConsumer operation to execute for every clientId after multiview state has been cleared
          */
         public void clearAll(String viewId, boolean reset, Consumer<String> clientIdConsumer) {
-            Set<MVSKey> keys = getMVSKeys().stream()
-                    .filter(k -> Objects.equals(k.viewId, viewId))
+            Set<MultiViewStateKey> keys = getMVSKeys().stream()
+                    .filter(k -> Objects.equals(k.getViewId(), viewId))
                     .collect(Collectors.toSet());
             if (!keys.isEmpty()) {
                 clearMVSKeys(keys, reset, clientIdConsumer);
@@ -483,7 +482,7 @@ public class PrimeFaces {
          * @param reset indicates whether or not the component should be reset
          */
         public void clear(String viewId, String clientId, boolean reset) {
-            MVSKey key = MVSKey.of(viewId, clientId);
+            MultiViewStateKey key = MultiViewStateKey.of(viewId, clientId);
             clearMVSKeys(Collections.singleton(key), reset, null);
         }
 
@@ -499,8 +498,8 @@ public class PrimeFaces {
          * @return multiview state bean attached to a component
          */
         public <T> T get(String viewId, String clientId, boolean create, Supplier<T> supplier) {
-            Map<MVSKey, Object> mvsMap = getMVSStore(create);
-            MVSKey mvsKey = MVSKey.of(viewId, clientId);
+            Map<MultiViewStateKey, Object> mvsMap = getMVSStore(create);
+            MultiViewStateKey mvsKey = MultiViewStateKey.of(viewId, clientId);
 
             T state = (T) mvsMap.get(mvsKey);
             if (state == null && create) {
@@ -538,43 +537,13 @@ public class PrimeFaces {
             return get(viewId, clientId, false, null);
         }
 
-        private Set<MVSKey> getMVSKeys() {
+        private Set<MultiViewStateKey> getMVSKeys() {
             return getMVSStore(false).keySet();
         }
 
-        private Map<MVSKey, Object> getMVSStore(boolean create) {
+        private Map<MultiViewStateKey, Object> getMVSStore(boolean create) {
             FacesContext fc = getFacesContext();
-            Map<String, Object> sessionMap = fc.getExternalContext().getSessionMap();
-
-            PrimeApplicationContext primeApplicationContext = PrimeApplicationContext.getCurrentInstance(fc);
-            String clientWindowId = "session";
-            if ("client-window".equals(primeApplicationContext.getConfig().getMultiViewStateStore())) {
-                ExternalContext externalContext = fc.getExternalContext();
-                ClientWindow clientWindow = externalContext.getClientWindow();
-                if (clientWindow != null && LangUtils.isNotBlank(clientWindow.getId())) {
-                    clientWindowId = clientWindow.getId();
-                }
-            }
-
-            Map<String, Map<MVSKey, Object>> clientWindowMap = (Map) sessionMap.get(Constants.MULTI_VIEW_STATES);
-            if (clientWindowMap == null) {
-                clientWindowMap = new ConcurrentHashMap<>();
-                sessionMap.put(Constants.MULTI_VIEW_STATES, clientWindowMap);
-            }
-
-            Map<MVSKey, Object> mvsMap = clientWindowMap.get(clientWindowId);
-
-            if (mvsMap == null) {
-                if (create) {
-                    mvsMap = new ConcurrentHashMap<>();
-                    clientWindowMap.put(clientWindowId, mvsMap);
-                }
-                else {
-                    mvsMap = Collections.emptyMap();
-                }
-            }
-
-            return mvsMap;
+            return PrimeApplicationContext.getCurrentInstance(fc).getMultiViewStateStore().getStates(fc, create);
         }
 
         private void reset(String clientId) {
@@ -587,27 +556,31 @@ public class PrimeFaces {
             });
         }
 
-        private void clearMVSKeys(Set<MVSKey> keysToRemove, boolean reset, Consumer<String> clientIdConsumer) {
-            Set<MVSKey> mvsKeys = getMVSKeys();
-            for (MVSKey mvsKey : keysToRemove) {
+        private void clearMVSKeys(Set<MultiViewStateKey> keysToRemove, boolean reset, Consumer<String> clientIdConsumer) {
+            Set<MultiViewStateKey> mvsKeys = getMVSKeys();
+            for (MultiViewStateKey mvsKey : keysToRemove) {
                 if (!mvsKeys.remove(mvsKey)) {
                     LOGGER.log(Level.WARNING,
                             "Multiview state for viewId: \"{0}\" and clientId \"{1}\" not found",
-                            new Object[]{mvsKey.viewId, mvsKey.clientId});
+                            new Object[]{mvsKey.getViewId(), mvsKey.getClientId()});
                     continue;
                 }
 
                 if (reset) {
-                    reset(mvsKey.clientId);
+                    reset(mvsKey.getClientId());
                 }
 
                 if (clientIdConsumer != null) {
-                    clientIdConsumer.accept(mvsKey.clientId);
+                    clientIdConsumer.accept(mvsKey.getClientId());
                 }
             }
         }
     }
 
+    /**
+     * The key of the multiViewState in the session up to PrimeFaces 13, replaced by {@link MultiViewStateKey}.
+     * Only kept so sessions serialized by these versions can still be restored, e.g. on session failover during an upgrade.
+     */
     private static class MVSKey implements Serializable {
 
         private static final long serialVersionUID = 1L;
@@ -620,38 +593,8 @@ public class PrimeFaces {
             // NOOP
         }
 
-        private MVSKey(String viewId, String clientId) {
-            this.viewId = viewId;
-            this.clientId = clientId;
-        }
-
-        public static MVSKey of(String viewId, String clientId) {
-            return new MVSKey(viewId, clientId);
-        }
-
-        @Override
-        public int hashCode() {
-            int hash = 7;
-            hash = 23 * hash + Objects.hashCode(viewId);
-            hash = 23 * hash + Objects.hashCode(clientId);
-            return hash;
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj) return true;
-            if (obj == null || getClass() != obj.getClass()) return false;
-            MVSKey other = (MVSKey) obj;
-            return Objects.equals(viewId, other.viewId) &&
-                    Objects.equals(clientId, other.clientId);
-        }
-
-        @Override
-        public String toString() {
-            return "MVSKey{" +
-                    "viewId='" + viewId + '\'' +
-                    ", clientId='" + clientId + '\'' +
-                    '}';
+        private Object readResolve() {
+            return MultiViewStateKey.of(viewId, clientId);
         }
     }
 }
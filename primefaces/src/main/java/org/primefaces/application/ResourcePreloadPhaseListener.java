@@ -0,0 +1,205 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.application;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.faces.component.UIViewRoot;
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+import javax.faces.event.PhaseEvent;
+import javax.faces.event.PhaseId;
+import javax.faces.event.PhaseListener;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletResponse;
+
+import org.primefaces.config.PrimeConfiguration;
+import org.primefaces.context.PrimeApplicationContext;
+
+/**
+ * Sends <code>Link: rel=preload</code> headers for the resources of a view before it is rendered, and optionally a
+ * 103 Early Hints response, so the browser can fetch them in parallel with the HTML.
+ * The resources are collected by the {@link org.primefaces.renderkit.HeadRenderer} on every rendering and remembered
+ * per mapping, view and locale for the next request; resources only known after the rendering are added then.
+ */
+public class ResourcePreloadPhaseListener implements PhaseListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOGGER = Logger.getLogger(ResourcePreloadPhaseListener.class.getName());
+
+    private static final String LINK_HEADERS_SENT = ResourcePreloadPhaseListener.class.getName() + ".LINK_HEADERS_SENT";
+    private static final int SC_EARLY_HINTS = 103;
+    private static final Pattern TOMCAT_VERSION = Pattern.compile("Apache Tomcat/(\\d+)\\.(\\d+)\\.(\\d+).*");
+
+    private transient volatile Boolean tomcatEarlyHints;
+
+    @Override
+    public void afterPhase(PhaseEvent event) {
+        // NOOP
+    }
+
+    @Override
+    public void beforePhase(PhaseEvent event) {
+        FacesContext context = event.getFacesContext();
+        PrimeApplicationContext applicationContext = PrimeApplicationContext.getCurrentInstance(context);
+        PrimeConfiguration config = applicationContext.getConfig();
+        UIViewRoot viewRoot = context.getViewRoot();
+        if (!config.isPreloadResources() || viewRoot == null || context.getPartialViewContext().isAjaxRequest()) {
+            return;
+        }
+
+        Map<String, String> resources = applicationContext.getPreloadResources().get(getPreloadKey(context, viewRoot));
+        if (resources == null || !addLinkHeaders(context, resources)) {
+            return;
+        }
+
+        Object response = context.getExternalContext().getResponse();
+        if (config.isEarlyHints() && response instanceof HttpServletResponse) {
+            sendEarlyHints(context, (HttpServletResponse) response);
+        }
+    }
+
+    @Override
+    public PhaseId getPhaseId() {
+        return PhaseId.RENDER_RESPONSE;
+    }
+
+    /**
+     * Sends the <code>Link</code> headers added so far as 103 Early Hints response, if the container supports it:
+     * either via <code>sendEarlyHints()</code> (Servlet 6.1) or via <code>sendError(103)</code> on Apache Tomcat 8.5.88,
+     * 9.0.74, 10.1.8 or newer. Other containers only get the <code>Link</code> headers of the final response.
+     *
+     * @param context the {@link FacesContext}
+     * @param response the {@link HttpServletResponse}
+     */
+    protected void sendEarlyHints(FacesContext context, HttpServletResponse response) {
+        try {
+            Method sendEarlyHints = getSendEarlyHintsMethod(response);
+            if (sendEarlyHints != null) {
+                sendEarlyHints.invoke(response);
+            }
+            else if (isTomcatEarlyHintsSupported(context)) {
+                response.sendError(SC_EARLY_HINTS);
+            }
+        }
+        catch (IOException | IllegalStateException | ReflectiveOperationException e) {
+            LOGGER.log(Level.FINE, "Could not send 103 Early Hints", e instanceof InvocationTargetException ? e.getCause() : e);
+        }
+    }
+
+    private static Method getSendEarlyHintsMethod(HttpServletResponse response) {
+        try {
+            return response.getClass().getMethod("sendEarlyHints");
+        }
+        catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private boolean isTomcatEarlyHintsSupported(FacesContext context) {
+        if (tomcatEarlyHints == null) {
+            Object servletContext = context.getExternalContext().getContext();
+            tomcatEarlyHints = servletContext instanceof ServletContext
+                    && isTomcatEarlyHintsSupported(((ServletContext) servletContext).getServerInfo());
+        }
+        return tomcatEarlyHints;
+    }
+
+    /**
+     * Checks if the server info names an Apache Tomcat version which turns <code>sendError(103)</code> into an
+     * Early Hints response.
+     *
+     * @param serverInfo the server info, e.g. <code>Apache Tomcat/9.0.74</code>
+     * @return true if 103 Early Hints can be sent via <code>sendError</code>
+     */
+    protected static boolean isTomcatEarlyHintsSupported(String serverInfo) {
+        Matcher matcher = serverInfo == null ? null : TOMCAT_VERSION.matcher(serverInfo);
+        if (matcher == null || !matcher.matches()) {
+            return false;
+        }
+
+        int major = Integer.parseInt(matcher.group(1));
+        int minor = Integer.parseInt(matcher.group(2));
+        int patch = Integer.parseInt(matcher.group(3));
+        switch (major) {
+            case 8:
+                return minor > 5 || (minor == 5 && patch >= 88);
+            case 9:
+                return minor > 0 || patch >= 74;
+            case 10:
+                return minor > 1 || (minor == 1 && patch >= 8);
+            default:
+                return major > 10;
+        }
+    }
+
+    /**
+     * Gets the key of the preload resources of a view. Request paths depend on the FacesServlet mapping and resources
+     * may depend on the locale, so both are part of the key.
+     *
+     * @param context the {@link FacesContext}
+     * @param viewRoot the {@link UIViewRoot}
+     * @return the key
+     */
+    public static String getPreloadKey(FacesContext context, UIViewRoot viewRoot) {
+        return context.getExternalContext().getRequestServletPath() + "|" + viewRoot.getViewId() + "|" + viewRoot.getLocale();
+    }
+
+    /**
+     * Adds a <code>Link</code> header for each resource which has not been added for the current request yet,
+     * unless the response is already committed.
+     *
+     * @param context the {@link FacesContext}
+     * @param resources the request paths of the resources mapped to their <code>as</code> type, e.g. script or style
+     * @return true if headers have been added
+     */
+    @SuppressWarnings("unchecked")
+    public static boolean addLinkHeaders(FacesContext context, Map<String, String> resources) {
+        ExternalContext externalContext = context.getExternalContext();
+        if (resources.isEmpty() || externalContext.isResponseCommitted()) {
+            return false;
+        }
+
+        Set<String> sent = (Set<String>) context.getAttributes().computeIfAbsent(LINK_HEADERS_SENT, k -> new HashSet<>());
+        boolean added = false;
+        for (Map.Entry<String, String> resource : resources.entrySet()) {
+            if (sent.add(resource.getKey())) {
+                String url = externalContext.encodeResourceURL(resource.getKey());
+                externalContext.addResponseHeader("Link", "<" + url + ">; rel=preload; as=" + resource.getValue());
+                added = true;
+            }
+        }
+        return added;
+    }
+}
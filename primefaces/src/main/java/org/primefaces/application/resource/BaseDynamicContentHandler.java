@@ -23,29 +23,188 @@
  */
 package org.primefaces.application.resource;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
 import java.util.Locale;
-import java.util.TimeZone;
+import java.util.Map;
+import java.util.concurrent.Callable;
 
 import javax.faces.context.ExternalContext;
+import javax.servlet.http.HttpServletResponse;
 
+import org.primefaces.util.LangUtils;
+import org.primefaces.util.LimitedSizeHashMap;
 import org.primefaces.util.ResourceUtils;
 
 public abstract class BaseDynamicContentHandler implements DynamicContentHandler {
 
+    private static final DateTimeFormatter HTTP_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+
+    private static final int RENDER_CACHE_SIZE = 500;
+
+    // rendered content by a handler specific key, so repeated content is not rendered again
+    private final Map<String, BufferedContent> renderCache = Collections.synchronizedMap(new LimitedSizeHashMap<>(RENDER_CACHE_SIZE));
+
     public void handleCache(ExternalContext externalContext, boolean cache) {
         if (cache) {
-            DateFormat httpDateFormat = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss z", Locale.US);
-            httpDateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
-            Calendar calendar = Calendar.getInstance();
-            calendar.add(Calendar.YEAR, 1);
             externalContext.setResponseHeader("Cache-Control", "max-age=29030400");
-            externalContext.setResponseHeader("Expires", httpDateFormat.format(calendar.getTime()));
+            externalContext.setResponseHeader("Expires", HTTP_DATE_FORMAT.format(ZonedDateTime.now(ZoneOffset.UTC).plusYears(1)));
         }
         else {
             ResourceUtils.addNoCacheControl(externalContext);
         }
     }
+
+    /**
+     * Adds the <code>ETag</code> and <code>Last-Modified</code> validators to the response.
+     *
+     * @param externalContext the {@link ExternalContext}
+     * @param eTag the entity tag or <code>null</code>
+     * @param lastModified the last modification in milliseconds since the epoch or <code>null</code>
+     */
+    public void handleValidators(ExternalContext externalContext, String eTag, Long lastModified) {
+        if (eTag != null) {
+            externalContext.setResponseHeader("ETag", quoteETag(eTag));
+        }
+        if (lastModified != null) {
+            externalContext.setResponseHeader("Last-Modified", HTTP_DATE_FORMAT.format(Instant.ofEpochMilli(lastModified)));
+        }
+    }
+
+    /**
+     * Evaluates the conditional request headers <code>If-None-Match</code> and <code>If-Modified-Since</code> (RFC 7232).
+     *
+     * @param externalContext the {@link ExternalContext}
+     * @param eTag the current entity tag or <code>null</code>
+     * @param lastModified the last modification in milliseconds since the epoch or <code>null</code>
+     * @return <code>true</code> if the client already has the current representation and a 304 can be sent
+     */
+    public boolean isNotModified(ExternalContext externalContext, String eTag, Long lastModified) {
+        if (eTag == null && lastModified == null) {
+            return false;
+        }
+
+        Map<String, String> headers = externalContext.getRequestHeaderMap();
+        String ifNoneMatch = headers.get("If-None-Match");
+        if (ifNoneMatch != null) {
+            // If-Modified-Since must be ignored if If-None-Match is present
+            if (eTag == null) {
+                return false;
+            }
+            if ("*".equals(ifNoneMatch.trim())) {
+                return true;
+            }
+            String opaqueTag = opaqueTag(quoteETag(eTag));
+            for (String candidate : ifNoneMatch.split(",")) {
+                if (opaqueTag.equals(opaqueTag(candidate.trim()))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Long ifModifiedSince = parseHttpDate(headers.get("If-Modified-Since"));
+        return lastModified != null && ifModifiedSince != null && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * Evaluates the value of a <code>If-Range</code> request header against the current validators.
+     *
+     * @param ifRange the header value, either an entity tag or a HTTP date
+     * @param eTag the current entity tag or <code>null</code>
+     * @param lastModified the last modification in milliseconds since the epoch or <code>null</code>
+     * @return <code>true</code> if the requested range can be served
+     */
+    public boolean isIfRangeSatisfied(String ifRange, String eTag, Long lastModified) {
+        String value = ifRange.trim();
+        if (value.startsWith("\"") || value.startsWith("W/")) {
+            // strong comparison, a weak entity tag never matches
+            return eTag != null && !value.startsWith("W/") && value.equals(quoteETag(eTag));
+        }
+
+        Long date = parseHttpDate(value);
+        return lastModified != null && date != null && lastModified / 1000 == date / 1000;
+    }
+
+    /**
+     * Sends already rendered content, or a 304 if the client already has it.
+     *
+     * @param externalContext the {@link ExternalContext}
+     * @param content the {@link BufferedContent}
+     * @param cache if the response should be cached
+     * @throws IOException if the content can't be written
+     */
+    public void send(ExternalContext externalContext, BufferedContent content, boolean cache) throws IOException {
+        if (isNotModified(externalContext, content.getETag(), null)) {
+            sendNotModified(externalContext, content.getETag(), null, cache);
+            return;
+        }
+
+        externalContext.setResponseStatus(HttpServletResponse.SC_OK);
+        externalContext.setResponseContentType(content.getContentType());
+        externalContext.setResponseHeader("Content-Length", String.valueOf(content.getBytes().length));
+        handleValidators(externalContext, content.getETag(), null);
+        handleCache(externalContext, cache);
+        externalContext.getResponseOutputStream().write(content.getBytes());
+    }
+
+    /**
+     * Gets rendered content from the render cache of this handler or renders and caches it.
+     *
+     * @param cacheKey the key, it must contain everything the rendered content depends on
+     * @param renderer renders the content if it is not cached yet
+     * @return the rendered content
+     * @throws IOException if the content can't be rendered
+     */
+    protected BufferedContent getRenderedContent(String cacheKey, Callable<BufferedContent> renderer) throws IOException {
+        BufferedContent content = renderCache.get(cacheKey);
+        if (content == null) {
+            try {
+                content = renderer.call();
+            }
+            catch (IOException | RuntimeException e) {
+                throw e;
+            }
+            catch (Exception e) {
+                throw new IOException(e);
+            }
+            renderCache.put(cacheKey, content);
+        }
+        return content;
+    }
+
+    public void sendNotModified(ExternalContext externalContext, String eTag, Long lastModified, boolean cache) {
+        externalContext.setResponseStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        handleValidators(externalContext, eTag, lastModified);
+        handleCache(externalContext, cache);
+    }
+
+    protected String quoteETag(String eTag) {
+        if (eTag.startsWith("\"") || eTag.startsWith("W/\"")) {
+            return eTag;
+        }
+        return "\"" + eTag + "\"";
+    }
+
+    private static String opaqueTag(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    private static Long parseHttpDate(String value) {
+        if (LangUtils.isBlank(value)) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        }
+        catch (DateTimeParseException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,182 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.application.resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+
+import javax.faces.application.Resource;
+import javax.faces.application.ResourceHandler;
+import javax.faces.context.FacesContext;
+
+import org.primefaces.util.Constants;
+import org.primefaces.util.LangUtils;
+
+/**
+ * {@link Resource} which concatenates multiple JavaScript or CSS resources of the PrimeFaces library into a single response.
+ * <p>
+ * The bundled resource names are part of the URL, so a bundle can be served by any node without server-side state.
+ * The URL also carries the PrimeFaces version, which makes it a stable cache key for the bundle content.
+ */
+public class BundledResource extends Resource {
+
+    public static final String SCRIPT_BUNDLE = "bundle.js";
+    public static final String STYLESHEET_BUNDLE = "bundle.css";
+
+    private static final int MAX_RESOURCES = 100;
+
+    private final List<Resource> resources;
+
+    public BundledResource(String bundleName, List<Resource> resources) {
+        this.resources = resources;
+        setResourceName(bundleName);
+        setLibraryName(Constants.LIBRARY);
+        setContentType(SCRIPT_BUNDLE.equals(bundleName) ? "text/javascript" : "text/css");
+    }
+
+    /**
+     * Creates the bundle requested by the current resource request.
+     *
+     * @param context the {@link FacesContext}
+     * @param wrapped the {@link ResourceHandler} to resolve the bundled resources
+     * @param bundleName either {@link #SCRIPT_BUNDLE} or {@link #STYLESHEET_BUNDLE}
+     * @return the bundle or null if the request does not describe a valid bundle
+     */
+    public static BundledResource create(FacesContext context, ResourceHandler wrapped, String bundleName) {
+        String names = context.getExternalContext().getRequestParameterMap().get(Constants.RESOURCE_BUNDLE_PARAM);
+        if (LangUtils.isBlank(names)) {
+            return null;
+        }
+
+        String extension = bundleName.substring(bundleName.lastIndexOf('.'));
+        String[] resourceNames = names.split(",");
+        if (resourceNames.length > MAX_RESOURCES) {
+            return null;
+        }
+
+        List<Resource> resources = new ArrayList<>(resourceNames.length);
+        for (String resourceName : resourceNames) {
+            if (!resourceName.endsWith(extension) || resourceName.contains("..") || resourceName.startsWith("/")) {
+                return null;
+            }
+            Resource resource = wrapped.createResource(resourceName, Constants.LIBRARY);
+            if (resource == null) {
+                return null;
+            }
+            resources.add(resource);
+        }
+
+        return new BundledResource(bundleName, resources);
+    }
+
+    /**
+     * Builds the request path of a bundle from the request path of its first resource, so the resource mapping of the
+     * FacesServlet and the version parameter are retained.
+     *
+     * @param first the first {@link Resource} of the bundle, as created by the application {@link ResourceHandler}
+     * @param bundleName either {@link #SCRIPT_BUNDLE} or {@link #STYLESHEET_BUNDLE}
+     * @param resourceNames the names of the bundled resources in the PrimeFaces library
+     * @return the request path or null if the request path of the first resource has an unknown format
+     */
+    public static String getRequestPath(Resource first, String bundleName, List<String> resourceNames) {
+        String requestPath = first.getRequestPath();
+        String resourcePath = ResourceHandler.RESOURCE_IDENTIFIER + "/" + first.getResourceName();
+        int index = requestPath.indexOf(resourcePath);
+        if (index == -1) {
+            return null;
+        }
+
+        return requestPath.substring(0, index)
+                + ResourceHandler.RESOURCE_IDENTIFIER + "/" + bundleName
+                + requestPath.substring(index + resourcePath.length())
+                + "&" + Constants.RESOURCE_BUNDLE_PARAM + "="
+                + URLEncoder.encode(String.join(",", resourceNames), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        byte[] separator = (SCRIPT_BUNDLE.equals(getResourceName()) ? "\n;\n" : "\n").getBytes(StandardCharsets.UTF_8);
+        List<InputStream> streams = new ArrayList<>(resources.size() * 2);
+        try {
+            for (Resource resource : resources) {
+                streams.add(resource.getInputStream());
+                streams.add(new ByteArrayInputStream(separator));
+            }
+        }
+        catch (IOException e) {
+            for (InputStream stream : streams) {
+                stream.close();
+            }
+            throw e;
+        }
+
+        Enumeration<InputStream> enumeration = Collections.enumeration(streams);
+        return new SequenceInputStream(enumeration);
+    }
+
+    @Override
+    public Map<String, String> getResponseHeaders() {
+        for (Resource resource : resources) {
+            String lastModified = resource.getResponseHeaders().get("Last-Modified");
+            if (lastModified != null) {
+                return Collections.singletonMap("Last-Modified", lastModified);
+            }
+        }
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public String getRequestPath() {
+        List<String> resourceNames = new ArrayList<>(resources.size());
+        for (Resource resource : resources) {
+            resourceNames.add(resource.getResourceName());
+        }
+        return getRequestPath(resources.get(0), getResourceName(), resourceNames);
+    }
+
+    @Override
+    public URL getURL() {
+        return null;
+    }
+
+    @Override
+    public boolean userAgentNeedsUpdate(FacesContext context) {
+        for (Resource resource : resources) {
+            if (resource.userAgentNeedsUpdate(context)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
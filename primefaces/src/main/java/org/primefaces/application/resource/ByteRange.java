@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.application.resource;
+
+import org.primefaces.util.LangUtils;
+
+/**
+ * A single byte range of a HTTP <code>Range</code> request header (RFC 7233).
+ */
+public class ByteRange {
+
+    /**
+     * The range can't be served for the given content length; a <code>416 Range Not Satisfiable</code> should be sent.
+     */
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final long start;
+    private final long end;
+
+    public ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Parses the value of a <code>Range</code> request header.
+     * Multiple ranges and syntactically invalid headers are ignored, which means the full content should be sent.
+     *
+     * @param header the header value
+     * @param length the length of the full content
+     * @return the {@link ByteRange}, {@link #UNSATISFIABLE} or <code>null</code> if the full content should be sent
+     */
+    public static ByteRange parse(String header, long length) {
+        if (LangUtils.isBlank(header) || !header.startsWith(BYTES_UNIT) || header.indexOf(',') != -1) {
+            return null;
+        }
+
+        String spec = header.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash == -1) {
+            return null;
+        }
+
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+
+            if (first.isEmpty()) {
+                // suffix range, e.g. "bytes=-500" for the last 500 bytes
+                if (last.isEmpty()) {
+                    return null;
+                }
+                long suffixLength = Long.parseLong(last);
+                if (suffixLength <= 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, length - suffixLength), length - 1);
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= length) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(start, Math.min(end, length - 1));
+        }
+        catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public long getLength() {
+        return end - start + 1;
+    }
+
+    /**
+     * @param length the length of the full content
+     * @return the value for the <code>Content-Range</code> response header
+     */
+    public String toContentRange(long length) {
+        if (this == UNSATISFIABLE) {
+            return "bytes */" + length;
+        }
+        return "bytes " + start + "-" + end + "/" + length;
+    }
+
+    @Override
+    public String toString() {
+        return "ByteRange{" +
+                "start=" + start +
+                ", end=" + end +
+                '}';
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.application.resource;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Locale;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.primefaces.util.LangUtils;
+
+/**
+ * Server side resize of dynamic images, so e.g. thumbnails are transferred instead of the full size image.
+ * The image is scaled down to fit into width and height while keeping its aspect ratio, it's never scaled up.
+ */
+public class ImageResize {
+
+    private final int width;
+    private final int height;
+    private final Float quality;
+
+    public ImageResize(int width, int height, Float quality) {
+        this.width = width;
+        this.height = height;
+        this.quality = quality;
+    }
+
+    /**
+     * Parses the value of the {@link org.primefaces.util.Constants#DYNAMIC_CONTENT_RESIZE_PARAM} request parameter.
+     *
+     * @param value <code>width_height_quality</code>, 0 or empty for an unlimited dimension or the default quality
+     * @return the resize or <code>null</code> if no dimension is limited
+     */
+    public static ImageResize of(String value) {
+        if (LangUtils.isBlank(value)) {
+            return null;
+        }
+
+        String[] tokens = value.split("_", -1);
+        int width = tokens.length > 0 && LangUtils.isNotBlank(tokens[0]) ? Integer.parseInt(tokens[0]) : 0;
+        int height = tokens.length > 1 && LangUtils.isNotBlank(tokens[1]) ? Integer.parseInt(tokens[1]) : 0;
+        Float quality = tokens.length > 2 && LangUtils.isNotBlank(tokens[2]) ? Float.valueOf(tokens[2]) : null;
+        if (width <= 0 && height <= 0) {
+            return null;
+        }
+        return new ImageResize(Math.max(0, width), Math.max(0, height), quality);
+    }
+
+    /**
+     * Formats this resize as value of the {@link org.primefaces.util.Constants#DYNAMIC_CONTENT_RESIZE_PARAM} request parameter.
+     *
+     * @return the parameter value
+     */
+    public String toParam() {
+        return width + "_" + height + "_" + (quality == null ? "" : quality);
+    }
+
+    /**
+     * Resizes the image. Content which is not a readable image or already small enough is returned unchanged.
+     *
+     * @param bytes the image
+     * @param contentType the content type of the image, may be <code>null</code>
+     * @return the resized image
+     * @throws IOException if the image could not be read or written
+     */
+    public BufferedContent apply(byte[] bytes, String contentType) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return new BufferedContent(contentType, bytes);
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                double scale = getScale(sourceWidth, sourceHeight);
+                if (scale >= 1 && quality == null) {
+                    return new BufferedContent(contentType, bytes);
+                }
+
+                // let the reader skip pixels which are not needed for the target size anyway, which is much faster than
+                // decoding everything; the rest is scaled down smoothly
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = (int) Math.max(1, Math.floor(1 / (scale * 2)));
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                BufferedImage image = reader.read(0, param);
+
+                int targetWidth = Math.max(1, (int) Math.round(sourceWidth * Math.min(1, scale)));
+                int targetHeight = Math.max(1, (int) Math.round(sourceHeight * Math.min(1, scale)));
+                String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+                return write(scale(image, targetWidth, targetHeight, "png".equals(format) || "gif".equals(format)), format);
+            }
+            finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    protected double getScale(int sourceWidth, int sourceHeight) {
+        double scaleX = width > 0 ? (double) width / sourceWidth : Double.MAX_VALUE;
+        double scaleY = height > 0 ? (double) height / sourceHeight : Double.MAX_VALUE;
+        return Math.min(scaleX, scaleY);
+    }
+
+    protected BufferedImage scale(BufferedImage image, int targetWidth, int targetHeight, boolean alpha) {
+        int type = alpha && image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage scaled = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+
+        // halve in steps, bilinear interpolation alone looks blocky when shrinking by more than half
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D g2 = step.createGraphics();
+            try {
+                g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g2.drawImage(scaled, 0, 0, currentWidth, currentHeight, null);
+            }
+            finally {
+                g2.dispose();
+            }
+            scaled = step;
+        }
+        while (currentWidth != targetWidth || currentHeight != targetHeight);
+
+        return scaled;
+    }
+
+    protected BufferedContent write(BufferedImage image, String format) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            format = "png";
+            writers = ImageIO.getImageWritersByFormatName(format);
+        }
+
+        ImageWriter writer = writers.next();
+        String[] mimeTypes = writer.getOriginatingProvider().getMIMETypes();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (quality != null && param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionType() == null) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(Math.max(0f, Math.min(1f, quality)));
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        }
+        finally {
+            writer.dispose();
+        }
+
+        return new BufferedContent(mimeTypes.length > 0 ? mimeTypes[0] : "image/" + format, out.toByteArray());
+    }
+}
@@ -23,18 +23,40 @@
  */
 package org.primefaces.application.resource;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import javax.faces.application.ProjectStage;
 import javax.faces.application.Resource;
 import javax.faces.application.ResourceWrapper;
+import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
+
 import org.primefaces.context.PrimeApplicationContext;
 import org.primefaces.context.PrimeRequestContext;
+import org.primefaces.util.LangUtils;
 
 /**
  * {@link ResourceWrapper} which appends the version of PrimeFaces to the URL.
+ * <p>
+ * When serving a text based resource to a client which accepts gzip, the resource is compressed once and the compressed bytes
+ * are kept for the lifetime of the application, so neither PrimeFaces nor the container compress it again on later requests.
+ * Versioned URLs are served with an immutable Cache-Control header in production.
+ * Both only apply if {@link org.primefaces.util.Constants.ContextParams#RESOURCE_COMPRESSION} is enabled.
  */
 public class PrimeResource extends ResourceWrapper {
 
+    private static final String ENCODING_GZIP = "gzip";
+    private static final String CACHE_CONTROL_IMMUTABLE = "public, max-age=31536000, immutable";
+
     private String version;
+    private Boolean compressed;
 
     public PrimeResource(Resource wrapped) {
         super(wrapped);
@@ -45,6 +67,131 @@ public class PrimeResource extends ResourceWrapper {
                 : "&v=" + PrimeApplicationContext.getCurrentInstance(context).getEnvironment().getBuildVersion();
     }
 
+    @Override
+    public InputStream getInputStream() throws IOException {
+        FacesContext context = FacesContext.getCurrentInstance();
+        if (!isCompressed(context)) {
+            return super.getInputStream();
+        }
+
+        Map<String, byte[]> compressedResources = PrimeApplicationContext.getCurrentInstance(context).getCompressedResources();
+        String key = getCompressedResourceKey();
+        byte[] bytes = compressedResources.get(key);
+        if (bytes == null) {
+            // compressed outside of the map lock, a concurrent request may compress the same resource once more
+            bytes = compress();
+            compressedResources.put(key, bytes);
+        }
+        return new ByteArrayInputStream(bytes);
+    }
+
+    /**
+     * Gets the key of the compressed bytes of this resource. The request path of the wrapped resource is used, as
+     * resources of the same name may differ by it, e.g. all {@link BundledResource}s are named bundle.js or bundle.css
+     * and differ only by their bundled resources.
+     *
+     * @return the key
+     */
+    protected String getCompressedResourceKey() {
+        String requestPath = getWrapped().getRequestPath();
+        return requestPath == null ? getLibraryName() + "/" + getResourceName() : requestPath;
+    }
+
+    @Override
+    public Map<String, String> getResponseHeaders() {
+        FacesContext context = FacesContext.getCurrentInstance();
+        Map<String, String> headers = super.getResponseHeaders();
+        if (context == null || !context.getApplication().getResourceHandler().isResourceRequest(context)) {
+            return headers;
+        }
+
+        headers = new HashMap<>(headers);
+        if (isCompressible(context)) {
+            headers.put("Vary", "Accept-Encoding");
+        }
+        if (isCompressed(context)) {
+            headers.put("Content-Encoding", ENCODING_GZIP);
+        }
+        if (isVersioned(context) && context.isProjectStage(ProjectStage.Production)
+                && PrimeApplicationContext.getCurrentInstance(context).getConfig().isResourceCompressionEnabled()) {
+            headers.put("Cache-Control", CACHE_CONTROL_IMMUTABLE);
+        }
+        return headers;
+    }
+
+    /**
+     * Whether the response for this resource will be gzip compressed by PrimeFaces.
+     *
+     * @param context the {@link FacesContext}
+     * @return true if the client accepts gzip and the resource is compressible
+     */
+    protected boolean isCompressed(FacesContext context) {
+        if (compressed == null) {
+            ExternalContext externalContext = context.getExternalContext();
+            compressed = isCompressible(context)
+                    && context.getApplication().getResourceHandler().isResourceRequest(context)
+                    && isGzipAccepted(externalContext.getRequestHeaderMap().get("Accept-Encoding"))
+                    && !super.getResponseHeaders().containsKey("Content-Encoding");
+        }
+        return compressed;
+    }
+
+    protected boolean isCompressible(FacesContext context) {
+        String contentType = getContentType();
+        return contentType != null
+                && PrimeApplicationContext.getCurrentInstance(context).getConfig().isResourceCompressionEnabled()
+                && (contentType.startsWith("text/")
+                    || contentType.contains("javascript")
+                    || contentType.contains("json")
+                    || contentType.contains("svg"));
+    }
+
+    protected boolean isVersioned(FacesContext context) {
+        if (version == null) {
+            return false;
+        }
+        String requested = context.getExternalContext().getRequestParameterMap().get("v");
+        return requested != null && ("&v=" + requested).equals(version);
+    }
+
+    protected byte[] compress() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = super.getInputStream();
+             GZIPOutputStream gzip = new GZIPOutputStream(out) {
+                 {
+                     def.setLevel(Deflater.BEST_COMPRESSION);
+                 }
+             }) {
+            in.transferTo(gzip);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Checks whether an Accept-Encoding header value allows a gzip encoded response.
+     *
+     * @param acceptEncoding the Accept-Encoding header value, may be null
+     * @return true if gzip (or any encoding) is accepted with a non-zero quality
+     */
+    protected static boolean isGzipAccepted(String acceptEncoding) {
+        if (LangUtils.isBlank(acceptEncoding)) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (ENCODING_GZIP.equalsIgnoreCase(name) || "*".equals(name)) {
+                for (int i = 1; i < parts.length; i++) {
+                    if (parts[i].replace(" ", "").matches("q=0(\\.0{0,3})?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public String getRequestPath() {
         if (version == null) {
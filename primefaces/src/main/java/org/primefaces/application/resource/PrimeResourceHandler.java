@@ -34,6 +34,7 @@ import javax.faces.application.ResourceHandlerWrapper;
 import javax.faces.context.FacesContext;
 
 import org.primefaces.application.resource.barcode.BarcodeHandler;
+import org.primefaces.context.PrimeApplicationContext;
 import org.primefaces.util.Constants;
 import org.primefaces.util.LangUtils;
 
@@ -59,6 +60,9 @@ public class PrimeResourceHandler extends ResourceHandlerWrapper {
 
     @Override
     public Resource createResource(String resourceName, String libraryName) {
+        if (isBundle(resourceName, libraryName)) {
+            return wrapResource(BundledResource.create(FacesContext.getCurrentInstance(), getWrapped(), resourceName), libraryName);
+        }
         Resource resource = super.createResource(resourceName, libraryName);
         return wrapResource(resource, libraryName);
     }
@@ -91,6 +95,12 @@ public class PrimeResourceHandler extends ResourceHandlerWrapper {
         }
     }
 
+    private boolean isBundle(String resourceName, String libraryName) {
+        return Constants.LIBRARY.equals(libraryName)
+                && (BundledResource.SCRIPT_BUNDLE.equals(resourceName) || BundledResource.STYLESHEET_BUNDLE.equals(resourceName))
+                && PrimeApplicationContext.getCurrentInstance(FacesContext.getCurrentInstance()).getConfig().isResourceBundlingEnabled();
+    }
+
     private Resource wrapResource(Resource resource, String libraryName) {
         if (resource != null && libraryName != null
                     && (libraryName.toLowerCase().startsWith(Constants.LIBRARY))) {
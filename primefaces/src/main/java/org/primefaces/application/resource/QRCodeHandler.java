@@ -24,7 +24,9 @@
 package org.primefaces.application.resource;
 
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Objects;
 
@@ -57,20 +59,29 @@ public class QRCodeHandler extends BaseDynamicContentHandler {
         }
 
         boolean cache = Boolean.parseBoolean(params.get(Constants.DYNAMIC_CONTENT_CACHE_PARAM));
+        String format = params.get("fmt");
+        String errorCorrection = params.get("qrec");
 
-        QrCode qrCode = QrCode.encodeText(value, getErrorCorrection(params.get("qrec")));
-        if ("png".equals(params.get("fmt"))) {
-            externalContext.setResponseContentType("image/png");
-            ImageIO.write(toImage(qrCode, 12, 0), "png", externalContext.getResponseOutputStream());
+        // repeated codes are not encoded and rasterized again
+        String cacheKey = format + '|' + errorCorrection + '|' + value;
+        BufferedContent content = getRenderedContent(cacheKey, () -> render(value, format, errorCorrection));
+
+        send(externalContext, content, cache);
+        externalContext.responseFlushBuffer();
+        context.responseComplete();
+    }
+
+    protected BufferedContent render(String value, String format, String errorCorrection) throws IOException {
+        QrCode qrCode = QrCode.encodeText(value, getErrorCorrection(errorCorrection));
+        if ("png".equals(format)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(toImage(qrCode, 12, 0), "png", out);
+            return new BufferedContent("image/png", out.toByteArray());
         }
         else {
-            externalContext.setResponseContentType("image/svg+xml");
-            externalContext.getResponseOutputWriter().write(toSvgString(qrCode, 0, "#FFFFFF", "#000000"));
+            return new BufferedContent("image/svg+xml",
+                    toSvgString(qrCode, 0, "#FFFFFF", "#000000").getBytes(StandardCharsets.UTF_8));
         }
-        handleCache(externalContext, cache);
-        externalContext.setResponseStatus(200);
-        externalContext.responseFlushBuffer();
-        context.responseComplete();
     }
 
     protected Ecc getErrorCorrection(final String value) {
@@ -24,10 +24,21 @@
 package org.primefaces.application.resource;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -40,13 +51,30 @@ import javax.faces.context.FacesContext;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.primefaces.context.PrimeApplicationContext;
+import org.primefaces.model.DefaultStreamedContent;
 import org.primefaces.model.StreamedContent;
 import org.primefaces.util.Constants;
+import org.primefaces.util.DynamicContentSrcBuilder;
+import org.primefaces.util.IOUtils;
+import org.primefaces.util.LimitedSizeHashMap;
 
 public class StreamedContentHandler extends BaseDynamicContentHandler {
 
     private static final Logger LOGGER = Logger.getLogger(StreamedContentHandler.class.getName());
 
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final BlockingQueue<byte[]> BUFFER_POOL = new ArrayBlockingQueue<>(16);
+    private static final int RESIZE_CACHE_SIZE = 500;
+
+    // resized images, so e.g. the thumbnails of an image grid are not decoded and scaled again for each request
+    private final Map<String, BufferedContent> resizeCache = Collections.synchronizedMap(new LimitedSizeHashMap<>(RESIZE_CACHE_SIZE));
+
     @Override
     public void handle(FacesContext context) throws IOException {
         Map<String, String> params = context.getExternalContext().getRequestParameterMap();
@@ -58,69 +86,107 @@ public class StreamedContentHandler extends BaseDynamicContentHandler {
 
             try {
                 ExternalContext externalContext = context.getExternalContext();
-                Map<String, Object> session = externalContext.getSessionMap();
-                Map<String, String> dynamicResourcesMapping = (Map) session.get(Constants.DYNAMIC_RESOURCES_MAPPING);
-
-                if (dynamicResourcesMapping != null) {
-                    String dynamicContentEL = dynamicResourcesMapping.get(resourceKey);
-
-                    if (dynamicContentEL != null) {
-                        ELContext eLContext = context.getELContext();
-                        ValueExpression ve = context.getApplication().getExpressionFactory().createValueExpression(
-                                context.getELContext(), dynamicContentEL, Object.class);
-                        Object value = ve.getValue(eLContext);
-
-                        if (value == null) {
-                            if (context.isProjectStage(ProjectStage.Development)) {
-                                LOGGER.log(Level.WARNING,
-                                        "Dynamic content resolved to null - skip streaming resource for ValueExpression: {0}",
-                                        dynamicContentEL);
-                            }
-                            sendNotFound(externalContext);
-                            return;
+                String dynamicContentEL = resolveExpressionString(context, resourceKey);
+
+                if (dynamicContentEL != null) {
+                    ELContext eLContext = context.getELContext();
+                    ValueExpression ve = context.getApplication().getExpressionFactory().createValueExpression(
+                            context.getELContext(), dynamicContentEL, Object.class);
+                    Object value = ve.getValue(eLContext);
+
+                    if (value == null) {
+                        if (context.isProjectStage(ProjectStage.Development)) {
+                            LOGGER.log(Level.WARNING,
+                                    "Dynamic content resolved to null - skip streaming resource for ValueExpression: {0}",
+                                    dynamicContentEL);
                         }
+                        sendNotFound(externalContext);
+                        return;
+                    }
 
-                        if (value instanceof StreamedContent) {
-                            StreamedContent streamedContent = (StreamedContent) value;
-                            if (streamedContent.getWriter() != null) {
-                                setResponseHeaders(streamedContent, externalContext);
-                                stream(externalContext, streamedContent.getWriter(), cache);
-                            }
-                            else {
-                                if (streamedContent.getStream() == null) {
+                    String resizeToken = params.get(Constants.DYNAMIC_CONTENT_RESIZE_PARAM);
+                    String resizeParam = resizeToken == null
+                            ? null
+                            : DynamicContentSrcBuilder.decodeParam(context, resourceKey, dynamicContentEL, Constants.DYNAMIC_CONTENT_RESIZE_PARAM,
+                                    resizeToken);
+                    if (resizeToken != null && resizeParam == null) {
+                        // altered by the client or issued for other content
+                        sendNotFound(externalContext);
+                        return;
+                    }
+
+                    ImageResize resize = ImageResize.of(resizeParam);
+                    if (resize != null) {
+                        sendResized(context, dynamicContentEL, value, resize, cache);
+                    }
+                    else if (value instanceof StreamedContent) {
+                        StreamedContent streamedContent = (StreamedContent) value;
+                        if (isNotModified(externalContext, streamedContent.getETag(), streamedContent.getLastModified())) {
+                            // answered before the stream is opened, so unchanged content is never read
+                            sendNotModified(externalContext, streamedContent.getETag(), streamedContent.getLastModified(), cache);
+                        }
+                        else if (streamedContent.getWriter() != null) {
+                            setResponseHeaders(streamedContent, externalContext);
+                            stream(externalContext, streamedContent.getWriter(), cache);
+                        }
+                        else if (streamedContent.getPath() != null && isSendFileSupported(externalContext)) {
+                            setResponseHeaders(streamedContent, externalContext);
+                            sendFile(externalContext, streamedContent, cache);
+                        }
+                        else if (streamedContent.getChannel() != null) {
+                            try (SeekableByteChannel channel = streamedContent.getChannel().get()) {
+                                if (channel == null) {
                                     if (context.isProjectStage(ProjectStage.Development)) {
                                         LOGGER.log(Level.WARNING,
-                                                "Stream of StreamedContent resolved to null - skip streaming resource for ValueExpression: {0}",
+                                                "Channel of StreamedContent resolved to null - skip streaming resource for ValueExpression: {0}",
                                                 dynamicContentEL);
                                     }
                                     sendNotFound(externalContext);
                                     return;
                                 }
+                                setResponseHeaders(streamedContent, externalContext);
+                                stream(externalContext, streamedContent, channel, cache);
+                            }
+                        }
+                        else {
+                            if (streamedContent.getStream() == null) {
+                                if (context.isProjectStage(ProjectStage.Development)) {
+                                    LOGGER.log(Level.WARNING,
+                                            "Stream of StreamedContent resolved to null - skip streaming resource for ValueExpression: {0}",
+                                            dynamicContentEL);
+                                }
+                                sendNotFound(externalContext);
+                                return;
+                            }
 
-                                try (InputStream inputStream = streamedContent.getStream().get()) {
-                                    if (inputStream == null) {
-                                        if (context.isProjectStage(ProjectStage.Development)) {
-                                            LOGGER.log(Level.WARNING,
-                                                    "Stream of StreamedContent resolved to null - skip streaming resource for ValueExpression: {0}",
-                                                    dynamicContentEL);
-                                        }
-                                        sendNotFound(externalContext);
-                                        return;
+                            try (InputStream inputStream = streamedContent.getStream().get()) {
+                                if (inputStream == null) {
+                                    if (context.isProjectStage(ProjectStage.Development)) {
+                                        LOGGER.log(Level.WARNING,
+                                                "Stream of StreamedContent resolved to null - skip streaming resource for ValueExpression: {0}",
+                                                dynamicContentEL);
                                     }
-                                    setResponseHeaders(streamedContent, externalContext);
-                                    stream(externalContext, inputStream, cache);
+                                    sendNotFound(externalContext);
+                                    return;
                                 }
+                                setResponseHeaders(streamedContent, externalContext);
+                                stream(externalContext, streamedContent, inputStream, cache);
                             }
                         }
-                        else if (value instanceof InputStream) {
-                            try (InputStream inputStream = (InputStream) value) {
-                                stream(externalContext, inputStream, cache);
-                            }
+                    }
+                    else if (value instanceof InputStream) {
+                        try (InputStream inputStream = (InputStream) value) {
+                            stream(externalContext, inputStream, cache);
                         }
-                        else if (value instanceof byte[]) {
-                            try (InputStream inputStream = new ByteArrayInputStream((byte[]) value)) {
-                                stream(externalContext, inputStream, cache);
-                            }
+                    }
+                    else if (value instanceof byte[]) {
+                        byte[] bytes = (byte[]) value;
+                        StreamedContent streamedContent = DefaultStreamedContent.builder()
+                                .contentLength((long) bytes.length)
+                                .stream(() -> new ByteArrayInputStream(bytes))
+                                .build();
+                        try (InputStream inputStream = streamedContent.getStream().get()) {
+                            stream(externalContext, streamedContent, inputStream, cache);
                         }
                     }
                 }
@@ -134,6 +200,112 @@ public class StreamedContentHandler extends BaseDynamicContentHandler {
         }
     }
 
+    /**
+     * Sends the resized image. The result is cached by the source identity - the expression, the request parameters
+     * and the validators of the {@link StreamedContent} - and the resize, unless caching is disabled for the content.
+     * As the cache is shared by all sessions, only {@link StreamedContent} with an ETag or last modification date is
+     * cached, as the same expression may resolve to different content for other users.
+     *
+     * @param context the {@link FacesContext}
+     * @param dynamicContentEL the expression of the dynamic content
+     * @param value the value of the expression
+     * @param resize the resize
+     * @param cache if the response should be cached
+     * @throws IOException if the content can't be read, resized or sent
+     */
+    protected void sendResized(FacesContext context, String dynamicContentEL, Object value, ImageResize resize, boolean cache)
+            throws IOException {
+        String cacheKey = null;
+        if (cache && isVersioned(value)) {
+            StringBuilder key = new StringBuilder(dynamicContentEL).append('|').append(resize.toParam());
+            new TreeMap<>(context.getExternalContext().getRequestParameterMap()).forEach((name, paramValue) -> {
+                if (!Constants.DYNAMIC_CONTENT_PARAM.equals(name)) {
+                    key.append('|').append(name).append('=').append(paramValue);
+                }
+            });
+            StreamedContent streamedContent = (StreamedContent) value;
+            key.append('|').append(streamedContent.getETag()).append('|').append(streamedContent.getLastModified());
+            cacheKey = key.toString();
+        }
+
+        // the source is not even opened if the resized image is known already
+        BufferedContent content = cacheKey == null ? null : resizeCache.get(cacheKey);
+        if (content == null) {
+            String contentType = value instanceof StreamedContent ? ((StreamedContent) value).getContentType() : null;
+            byte[] bytes = toByteArray(value);
+            if (bytes == null) {
+                sendNotFound(context.getExternalContext());
+                return;
+            }
+            content = resize.apply(bytes, contentType == null ? "application/octet-stream" : contentType);
+            // unchanged content, e.g. no image or already small enough, is not worth to be kept in memory
+            if (cacheKey != null && content.getBytes() != bytes) {
+                resizeCache.put(cacheKey, content);
+            }
+        }
+
+        send(context.getExternalContext(), content, cache);
+    }
+
+    protected boolean isVersioned(Object value) {
+        if (value instanceof StreamedContent) {
+            StreamedContent streamedContent = (StreamedContent) value;
+            return streamedContent.getETag() != null || streamedContent.getLastModified() != null;
+        }
+        return false;
+    }
+
+    protected byte[] toByteArray(Object value) throws IOException {
+        if (value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        if (value instanceof InputStream) {
+            try (InputStream inputStream = (InputStream) value) {
+                return IOUtils.toByteArray(inputStream);
+            }
+        }
+        if (value instanceof StreamedContent) {
+            StreamedContent streamedContent = (StreamedContent) value;
+            if (streamedContent.getWriter() != null) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                streamedContent.getWriter().accept(out);
+                return out.toByteArray();
+            }
+            if (streamedContent.getPath() != null) {
+                return Files.readAllBytes(streamedContent.getPath());
+            }
+            if (streamedContent.getChannel() != null) {
+                try (SeekableByteChannel channel = streamedContent.getChannel().get()) {
+                    return channel == null ? null : IOUtils.toByteArray(Channels.newInputStream(channel));
+                }
+            }
+            if (streamedContent.getStream() != null) {
+                try (InputStream inputStream = streamedContent.getStream().get()) {
+                    return inputStream == null ? null : IOUtils.toByteArray(inputStream);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the expression string of the dynamic content, either from the URL token (stateless mode) or from the session.
+     *
+     * @param context the {@link FacesContext}
+     * @param resourceKey the value of the {@link Constants#DYNAMIC_CONTENT_PARAM} request parameter
+     * @return the expression string or {@code null} if it can't be resolved
+     */
+    protected String resolveExpressionString(FacesContext context, String resourceKey) {
+        PrimeApplicationContext applicationContext = PrimeApplicationContext.getCurrentInstance(context);
+        if (applicationContext.getConfig().isDynamicContentStateless()) {
+            return applicationContext.getDynamicContentEncrypter().decrypt(resourceKey);
+        }
+
+        Map<String, Object> session = context.getExternalContext().getSessionMap();
+        Map<String, String> dynamicResourcesMapping = (Map) session.get(Constants.DYNAMIC_RESOURCES_MAPPING);
+        return dynamicResourcesMapping == null ? null : dynamicResourcesMapping.get(resourceKey);
+    }
+
     protected void setResponseHeaders(StreamedContent streamedContent, ExternalContext externalContext) {
         if (streamedContent.getContentType() != null) {
             externalContext.setResponseContentType(streamedContent.getContentType());
@@ -148,6 +320,7 @@ public class StreamedContentHandler extends BaseDynamicContentHandler {
         if (streamedContent.getName() != null) {
             externalContext.setResponseHeader("Content-Disposition", "inline;filename=\"" + streamedContent.getName() + "\"");
         }
+        handleValidators(externalContext, streamedContent.getETag(), streamedContent.getLastModified());
     }
 
     protected void stream(ExternalContext externalContext, InputStream inputStream, boolean cache) throws IOException {
@@ -155,12 +328,212 @@ public class StreamedContentHandler extends BaseDynamicContentHandler {
 
         handleCache(externalContext, cache);
 
-        byte[] buffer = new byte[2048];
+        byte[] buffer = acquireBuffer();
+        try {
+            OutputStream outputStream = externalContext.getResponseOutputStream();
+            int length;
+            while ((length = (inputStream.read(buffer))) >= 0) {
+                outputStream.write(buffer, 0, length);
+            }
+        }
+        finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    /**
+     * Streams the {@link InputStream} and serves a single byte range if requested and the content length is known.
+     *
+     * @param externalContext the {@link ExternalContext}
+     * @param streamedContent the {@link StreamedContent} providing the content length and validators
+     * @param inputStream the {@link InputStream}
+     * @param cache if the response should be cached
+     * @throws IOException if the content can't be streamed
+     */
+    protected void stream(ExternalContext externalContext, StreamedContent streamedContent, InputStream inputStream, boolean cache)
+            throws IOException {
+        Long contentLength = streamedContent.getContentLength();
+        ByteRange range = contentLength == null ? null : resolveRange(externalContext, streamedContent, contentLength);
+        if (range == null) {
+            stream(externalContext, inputStream, cache);
+            return;
+        }
+
+        if (startPartialContent(externalContext, range, contentLength, cache)) {
+            long skipped = 0;
+            while (skipped < range.getStart()) {
+                long n = inputStream.skip(range.getStart() - skipped);
+                if (n <= 0) {
+                    if (inputStream.read() == -1) {
+                        throw new EOFException("Content is shorter than the declared content length " + contentLength);
+                    }
+                    n = 1;
+                }
+                skipped += n;
+            }
+
+            byte[] buffer = acquireBuffer();
+            try {
+                OutputStream outputStream = externalContext.getResponseOutputStream();
+                long remaining = range.getLength();
+                int length;
+                while (remaining > 0 && (length = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining))) >= 0) {
+                    outputStream.write(buffer, 0, length);
+                    remaining -= length;
+                }
+            }
+            finally {
+                releaseBuffer(buffer);
+            }
+        }
+    }
+
+    /**
+     * Streams the {@link SeekableByteChannel}; only the requested byte range is read if the request contains a <code>Range</code> header.
+     *
+     * @param externalContext the {@link ExternalContext}
+     * @param streamedContent the {@link StreamedContent} providing the validators
+     * @param channel the {@link SeekableByteChannel}
+     * @param cache if the response should be cached
+     * @throws IOException if the content can't be streamed
+     */
+    protected void stream(ExternalContext externalContext, StreamedContent streamedContent, SeekableByteChannel channel, boolean cache)
+            throws IOException {
+        long size = channel.size();
+        ByteRange range = resolveRange(externalContext, streamedContent, size);
+
+        long position = 0;
+        long remaining = size;
+        if (range == null) {
+            externalContext.setResponseStatus(HttpServletResponse.SC_OK);
+            externalContext.setResponseHeader("Content-Length", String.valueOf(size));
+            handleCache(externalContext, cache);
+        }
+        else if (startPartialContent(externalContext, range, size, cache)) {
+            position = range.getStart();
+            remaining = range.getLength();
+        }
+        else {
+            return;
+        }
+
+        channel.position(position);
+        OutputStream outputStream = externalContext.getResponseOutputStream();
+        // the servlet API only offers an OutputStream, so a heap buffer avoids another copy from a direct buffer
+        byte[] bytes = acquireBuffer();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (remaining > 0) {
+                buffer.clear();
+                if (remaining < buffer.capacity()) {
+                    buffer.limit((int) remaining);
+                }
+                int read = channel.read(buffer);
+                if (read < 0) {
+                    break;
+                }
+                outputStream.write(bytes, 0, read);
+                remaining -= read;
+            }
+        }
+        finally {
+            releaseBuffer(bytes);
+        }
+    }
+
+    /**
+     * Checks if the container can send files itself without copying them through the JVM (Tomcat sendfile).
+     *
+     * @param externalContext the {@link ExternalContext}
+     * @return if sendfile is supported for the current request
+     */
+    protected boolean isSendFileSupported(ExternalContext externalContext) {
+        return Boolean.TRUE.equals(externalContext.getRequestMap().get(SENDFILE_SUPPORT));
+    }
+
+    /**
+     * Lets the container send the file (or the requested byte range of it) via sendfile, which uses zero-copy
+     * <code>FileChannel#transferTo</code> from the file to the socket.
+     *
+     * @param externalContext the {@link ExternalContext}
+     * @param streamedContent the file backed {@link StreamedContent}
+     * @param cache if the response should be cached
+     * @throws IOException if the file can't be accessed
+     */
+    protected void sendFile(ExternalContext externalContext, StreamedContent streamedContent, boolean cache) throws IOException {
+        Path path = streamedContent.getPath().toRealPath();
+        long size = Files.size(path);
+        ByteRange range = resolveRange(externalContext, streamedContent, size);
+
+        long start = 0;
+        long end = size;
+        if (range == null) {
+            externalContext.setResponseStatus(HttpServletResponse.SC_OK);
+            externalContext.setResponseHeader("Content-Length", String.valueOf(size));
+            handleCache(externalContext, cache);
+        }
+        else if (startPartialContent(externalContext, range, size, cache)) {
+            start = range.getStart();
+            end = range.getEnd() + 1;
+        }
+        else {
+            return;
+        }
 
-        int length;
-        while ((length = (inputStream.read(buffer))) >= 0) {
-            externalContext.getResponseOutputStream().write(buffer, 0, length);
+        Map<String, Object> requestMap = externalContext.getRequestMap();
+        requestMap.put(SENDFILE_FILENAME, path.toString());
+        requestMap.put(SENDFILE_START, start);
+        requestMap.put(SENDFILE_END, end);
+    }
+
+    protected byte[] acquireBuffer() {
+        byte[] buffer = BUFFER_POOL.poll();
+        return buffer == null ? new byte[BUFFER_SIZE] : buffer;
+    }
+
+    protected void releaseBuffer(byte[] buffer) {
+        BUFFER_POOL.offer(buffer);
+    }
+
+    /**
+     * Resolves the requested byte range and announces the range support via the <code>Accept-Ranges</code> header.
+     *
+     * @param externalContext the {@link ExternalContext}
+     * @param streamedContent the {@link StreamedContent} providing the validators for <code>If-Range</code>
+     * @param contentLength the length of the full content
+     * @return the {@link ByteRange}, {@link ByteRange#UNSATISFIABLE} or <code>null</code> if the full content should be sent
+     */
+    protected ByteRange resolveRange(ExternalContext externalContext, StreamedContent streamedContent, long contentLength) {
+        externalContext.setResponseHeader("Accept-Ranges", "bytes");
+
+        Map<String, String> headers = externalContext.getRequestHeaderMap();
+        String ifRange = headers.get("If-Range");
+        if (ifRange != null && !isIfRangeSatisfied(ifRange, streamedContent.getETag(), streamedContent.getLastModified())) {
+            // the client's partial copy is outdated (or can't be validated), so send the full content
+            return null;
         }
+
+        return ByteRange.parse(headers.get("Range"), contentLength);
+    }
+
+    /**
+     * Writes the status and headers of a partial content response.
+     *
+     * @return <code>false</code> if the range is not satisfiable and no content must be written
+     */
+    protected boolean startPartialContent(ExternalContext externalContext, ByteRange range, long contentLength, boolean cache) {
+        externalContext.setResponseHeader("Content-Range", range.toContentRange(contentLength));
+
+        if (range == ByteRange.UNSATISFIABLE) {
+            externalContext.setResponseStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            externalContext.setResponseHeader("Content-Length", "0");
+            return false;
+        }
+
+        externalContext.setResponseStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        externalContext.setResponseHeader("Content-Length", String.valueOf(range.getLength()));
+        handleCache(externalContext, cache);
+        return true;
     }
 
     protected void stream(ExternalContext externalContext, Consumer<OutputStream> writer, boolean cache) throws IOException {
@@ -24,8 +24,8 @@
 package org.primefaces.application.resource.barcode;
 
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.logging.Level;
@@ -42,6 +42,7 @@ import org.krysalis.barcode4j.HumanReadablePlacement;
 import org.krysalis.barcode4j.output.bitmap.BitmapCanvasProvider;
 import org.krysalis.barcode4j.output.svg.SVGCanvasProvider;
 import org.primefaces.application.resource.BaseDynamicContentHandler;
+import org.primefaces.application.resource.BufferedContent;
 import org.primefaces.util.Constants;
 import org.w3c.dom.DocumentFragment;
 
@@ -83,29 +84,42 @@ public class BarcodeHandler extends BaseDynamicContentHandler {
         }
 
         try {
-            BarcodeGenerator generator = generators.get(params.get("gen"));
+            String type = params.get("gen");
             String format = params.get("fmt");
             String hrp = params.get("hrp");
             int orientation = Integer.parseInt(params.get("ori"));
             boolean cache = Boolean.parseBoolean(params.get(Constants.DYNAMIC_CONTENT_CACHE_PARAM));
 
-            generator.getBarcodeBean().setMsgPosition(HumanReadablePlacement.byName(hrp));
+            // repeated codes are not generated again
+            String cacheKey = type + '|' + format + '|' + hrp + '|' + orientation + '|' + value;
+            BufferedContent content = getRenderedContent(cacheKey, () -> render(generators.get(type), value, format, hrp, orientation));
 
-            OutputStream out = externalContext.getResponseOutputStream();
+            send(externalContext, content, cache);
+        }
+        catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error in streaming barcode resource. {0}", new Object[]{e.getMessage()});
+        }
+        finally {
+            externalContext.responseFlushBuffer();
+            context.responseComplete();
+        }
+    }
 
-            handleCache(externalContext, cache);
+    protected BufferedContent render(BarcodeGenerator generator, String value, String format, String hrp, int orientation) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
 
-            if ("png".equals(format)) {
-                externalContext.setResponseContentType("image/png");
+        // the generators are shared, so the human readable placement must not change while generating
+        synchronized (generator) {
+            generator.getBarcodeBean().setMsgPosition(HumanReadablePlacement.byName(hrp));
 
+            if ("png".equals(format)) {
                 BitmapCanvasProvider bitmapCanvasProvider = new BitmapCanvasProvider(
                         out, "image/x-png", 150, BufferedImage.TYPE_BYTE_BINARY, false, orientation);
                 generator.generate(bitmapCanvasProvider, value);
                 bitmapCanvasProvider.finish();
+                return new BufferedContent("image/png", out.toByteArray());
             }
             else if ("svg".equals(format)) {
-                externalContext.setResponseContentType("image/svg+xml");
-
                 SVGCanvasProvider svgCanvasProvider = new SVGCanvasProvider(false, orientation);
                 generator.generate(svgCanvasProvider, value);
                 DocumentFragment frag = svgCanvasProvider.getDOMFragment();
@@ -116,16 +130,10 @@ public class BarcodeHandler extends BaseDynamicContentHandler {
                 Source src = new javax.xml.transform.dom.DOMSource(frag);
                 Result res = new javax.xml.transform.stream.StreamResult(out);
                 trans.transform(src, res);
+                return new BufferedContent("image/svg+xml", out.toByteArray());
             }
-
-            externalContext.setResponseStatus(200);
-        }
-        catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error in streaming barcode resource. {0}", new Object[]{e.getMessage()});
-        }
-        finally {
-            externalContext.responseFlushBuffer();
-            context.responseComplete();
         }
+
+        throw new IllegalArgumentException("Unsupported barcode format: " + format);
     }
 }
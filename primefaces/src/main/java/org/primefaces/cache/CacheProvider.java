@@ -23,6 +23,8 @@
  */
 package org.primefaces.cache;
 
+import java.util.function.Supplier;
+
 /**
  * Implementations of this interface must be thread-safe.
  */
@@ -32,7 +34,63 @@ public interface CacheProvider {
 
     void put(String region, String key, Object object);
 
+    /**
+     * Puts an entry which expires after the given time to live and can be invalidated by any of the given tags.
+     * The default implementation ignores the time to live and the tags.
+     *
+     * @param region the region
+     * @param key the key
+     * @param object the value
+     * @param timeToLive the time to live in milliseconds, 0 to use the default of the region
+     * @param tags the tags to invalidate the entry with {@link #invalidateTag(String)}
+     */
+    default void put(String region, String key, Object object, long timeToLive, String... tags) {
+        put(region, key, object);
+    }
+
+    /**
+     * Gets an entry, or computes and puts it if absent.
+     *
+     * @see #computeIfAbsent(String, String, long, Supplier, String...)
+     */
+    default Object computeIfAbsent(String region, String key, Supplier<?> supplier) {
+        return computeIfAbsent(region, key, 0, supplier);
+    }
+
+    /**
+     * Gets an entry, or computes and puts it if absent.
+     * Implementations should make sure that concurrent callers of a missing entry compute it only once, while the others
+     * wait for its result (single-flight). The default implementation computes it in every caller.
+     *
+     * @param region the region
+     * @param key the key
+     * @param timeToLive the time to live in milliseconds, 0 to use the default of the region
+     * @param supplier computes the value, a null value is not cached
+     * @param tags the tags to invalidate the entry with {@link #invalidateTag(String)}
+     * @return the cached or computed value
+     */
+    default Object computeIfAbsent(String region, String key, long timeToLive, Supplier<?> supplier, String... tags) {
+        Object value = get(region, key);
+        if (value == null) {
+            value = supplier.get();
+            if (value != null) {
+                put(region, key, value, timeToLive, tags);
+            }
+        }
+        return value;
+    }
+
     void remove(String region, String key);
 
+    /**
+     * Removes all entries which have been put with the given tag.
+     * The default implementation clears the whole cache, as it does not know which entries are tagged.
+     *
+     * @param tag the tag
+     */
+    default void invalidateTag(String tag) {
+        clear();
+    }
+
     void clear();
 }
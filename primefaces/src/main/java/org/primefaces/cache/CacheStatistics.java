@@ -0,0 +1,75 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.cache;
+
+import java.io.Serializable;
+
+/**
+ * Snapshot of the statistics of a cache region.
+ */
+public class CacheStatistics implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long size;
+
+    public CacheStatistics(long hitCount, long missCount, long evictionCount, long size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the number of entries removed because the region was full or the entry was expired
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public double getHitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount=" + evictionCount + ", size=" + size + "}";
+    }
+}
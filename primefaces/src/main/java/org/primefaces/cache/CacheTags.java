@@ -0,0 +1,169 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.cache;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tag based invalidation for {@link CacheProvider} implementations.
+ * <p>
+ * Instead of indexing the keys of each tag, every tag has a random version which is replaced on invalidation.
+ * Tagged values are stored together with the versions of their tags at the time of the put, and are stale once
+ * any of these versions has changed or is gone. Values can additionally carry an expiration time, for providers which
+ * do not support a time to live per entry.
+ * <p>
+ * The versions are stored in the {@value #VERSIONS_REGION} region of the provider itself, so an invalidation on one node
+ * of a clustered cache is seen by all other nodes. If a version is evicted from that region, the values of its tag are
+ * only treated as stale.
+ */
+public class CacheTags {
+
+    public static final String VERSIONS_REGION = "primefaces.cacheTags";
+
+    private final CacheProvider provider;
+
+    /**
+     * @param provider the provider to store the tag versions in
+     */
+    public CacheTags(CacheProvider provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * @param value the value to store
+     * @param expiresAt the expiration time in milliseconds since the epoch, {@link Long#MAX_VALUE} for none
+     * @param tags the tags of the value
+     * @return the value to store in the cache
+     */
+    public Object wrap(Object value, long expiresAt, String... tags) {
+        if (value instanceof PinnedValue) {
+            PinnedValue pinned = (PinnedValue) value;
+            return new TaggedValue(pinned.value, expiresAt, pinned.tagVersions);
+        }
+        if ((tags == null || tags.length == 0) && expiresAt == Long.MAX_VALUE) {
+            return value;
+        }
+
+        return new TaggedValue(value, expiresAt, getVersions(tags));
+    }
+
+    /**
+     * Reads the current versions of the tags, e.g. before a value is computed.
+     *
+     * @param tags the tags
+     * @return the versions by tag
+     */
+    public Map<String, Long> getVersions(String... tags) {
+        Map<String, Long> tagVersions = new HashMap<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                Long version = getVersion(tag);
+                if (version == null) {
+                    version = newVersion(tag);
+                }
+                tagVersions.put(tag, version);
+            }
+        }
+        return tagVersions;
+    }
+
+    /**
+     * Pins a computed value to the tag versions read before its computation. Put with its tags, it is stored with these
+     * versions instead of the current ones, so it is stale if a tag has been invalidated during the computation.
+     *
+     * @param value the computed value
+     * @param tagVersions the versions read by {@link #getVersions(String...)} before the computation
+     * @return the value to put
+     */
+    public Object pin(Object value, Map<String, Long> tagVersions) {
+        return new PinnedValue(value, tagVersions);
+    }
+
+    /**
+     * @param stored the value read from the cache
+     * @param now the current time in milliseconds since the epoch
+     * @return the value or null if it is expired or one of its tags has been invalidated
+     */
+    public Object unwrap(Object stored, long now) {
+        if (!(stored instanceof TaggedValue)) {
+            return stored;
+        }
+
+        TaggedValue tagged = (TaggedValue) stored;
+        if (tagged.expiresAt <= now) {
+            return null;
+        }
+        for (Map.Entry<String, Long> tagVersion : tagged.tagVersions.entrySet()) {
+            if (!tagVersion.getValue().equals(getVersion(tagVersion.getKey()))) {
+                return null;
+            }
+        }
+        return tagged.value;
+    }
+
+    public void invalidate(String tag) {
+        newVersion(tag);
+    }
+
+    private Long getVersion(String tag) {
+        Object version = provider.get(VERSIONS_REGION, tag);
+        return version instanceof Long ? (Long) version : null;
+    }
+
+    private Long newVersion(String tag) {
+        // random instead of incremented, so concurrent invalidations on several nodes need no coordination
+        Long version = ThreadLocalRandom.current().nextLong();
+        provider.put(VERSIONS_REGION, tag, version);
+        return version;
+    }
+
+    private static final class PinnedValue {
+
+        private final Object value;
+        private final Map<String, Long> tagVersions;
+
+        private PinnedValue(Object value, Map<String, Long> tagVersions) {
+            this.value = value;
+            this.tagVersions = tagVersions;
+        }
+    }
+
+    private static final class TaggedValue implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object value;
+        private final long expiresAt;
+        private final Map<String, Long> tagVersions;
+
+        private TaggedValue(Object value, long expiresAt, Map<String, Long> tagVersions) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.tagVersions = tagVersions;
+        }
+    }
+}
@@ -23,41 +23,93 @@
  */
 package org.primefaces.cache;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.logging.Logger;
+import java.util.function.Supplier;
 
 /**
- * Basic cache provider for development purposes, should be avoided to use in production as there is no eviction and timeouts.
+ * In-memory cache provider which needs no further setup.
+ * <p>
+ * Each region holds at most {@link #getMaxSize()} entries, which can be configured with the
+ * <code>primefaces.CACHE_PROVIDER_MAX_SIZE</code> context param or per region via {@link #setMaxSize(String, int)}.
+ * The least recently used entry is evicted when a region is full; regions of at least 128 entries are split into up to 16
+ * independently locked segments, each evicting its own least recently used entry.
+ * Entries expire after {@link #getTimeToLive()} milliseconds, unless it is 0.
+ * Hit, miss and eviction counts are available per region via {@link #getStatistics(String)}.
+ * {@link #computeIfAbsent(String, String, long, Supplier, String...)} computes a missing entry only once for concurrent callers.
+ * Subclass it to change the defaults, e.g. <code>super(5000, TimeUnit.MINUTES.toMillis(10))</code>.
  */
 public class DefaultCacheProvider implements CacheProvider {
 
-    private static final Logger LOGGER = Logger.getLogger(DefaultCacheProvider.class.getName());
+    public static final int DEFAULT_MAX_SIZE = 1000;
 
-    private final Map<String, ConcurrentMap<String, Object>> cache;
+    private static final int TAG_VERSIONS_MAX_SIZE = 10000;
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final Map<String, Region> cache;
+    private final Map<String, Integer> regionMaxSizes;
+    private final SingleFlight singleFlight;
+    private final CacheTags tags;
+    private final int maxSize;
+    private final long timeToLive;
 
     public DefaultCacheProvider() {
-        cache = new ConcurrentHashMap<>();
-        LOGGER.warning("DefaultCacheProvider is for development purposes only, prefer another provider such as EhCache, HazelCast, or Caffeine in production.");
+        this(DEFAULT_MAX_SIZE, 0);
+    }
+
+    /**
+     * @param maxSize the maximum number of entries per region
+     * @param timeToLive the time to live of an entry in milliseconds, 0 for no expiration
+     */
+    public DefaultCacheProvider(int maxSize, long timeToLive) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0");
+        }
+        if (timeToLive < 0) {
+            throw new IllegalArgumentException("timeToLive must not be negative");
+        }
+        this.cache = new ConcurrentHashMap<>();
+        this.regionMaxSizes = new ConcurrentHashMap<>();
+        this.singleFlight = new SingleFlight();
+        this.tags = new CacheTags(this);
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+
+        regionMaxSizes.put(CacheTags.VERSIONS_REGION, TAG_VERSIONS_MAX_SIZE);
     }
 
     @Override
     public Object get(String region, String key) {
-        Map<String, Object> cacheRegion = getRegion(region);
-        return cacheRegion.get(key);
+        return getRegion(region).get(key, currentTimeMillis(), tags);
     }
 
     @Override
     public void put(String region, String key, Object object) {
-        Map<String, Object> cacheRegion = getRegion(region);
-        cacheRegion.put(key, object);
+        put(region, key, object, 0);
+    }
+
+    @Override
+    public void put(String region, String key, Object object, long timeToLive, String... tags) {
+        long entryTimeToLive = timeToLive == 0 ? this.timeToLive : timeToLive;
+        long expiresAt = entryTimeToLive == 0 ? Long.MAX_VALUE : currentTimeMillis() + entryTimeToLive;
+        getRegion(region).put(key, this.tags.wrap(object, Long.MAX_VALUE, tags), expiresAt);
+    }
+
+    @Override
+    public Object computeIfAbsent(String region, String key, long timeToLive, Supplier<?> supplier, String... tags) {
+        return singleFlight.computeIfAbsent(this, this.tags, region, key, timeToLive, supplier, tags);
     }
 
     @Override
     public void remove(String region, String key) {
-        Map<String, Object> cacheRegion = getRegion(region);
-        cacheRegion.remove(key);
+        getRegion(region).remove(key);
+    }
+
+    @Override
+    public void invalidateTag(String tag) {
+        tags.invalidate(tag);
     }
 
     @Override
@@ -65,7 +117,181 @@ public class DefaultCacheProvider implements CacheProvider {
         cache.clear();
     }
 
-    private Map<String, Object> getRegion(String name) {
-        return cache.computeIfAbsent(name, k -> new ConcurrentHashMap<>());
+    /**
+     * @param region the name of the region
+     * @return the statistics of the region or null if the region does not exist
+     */
+    public CacheStatistics getStatistics(String region) {
+        Region cacheRegion = cache.get(region);
+        return cacheRegion == null ? null : cacheRegion.getStatistics();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @param region the name of the region
+     * @return the maximum number of entries of the region
+     */
+    public int getMaxSize(String region) {
+        return regionMaxSizes.getOrDefault(region, maxSize);
+    }
+
+    /**
+     * Sets the maximum number of entries of a region, which overrides {@link #getMaxSize()}.
+     * If the region already exists, its least recently used entries are evicted until they fit.
+     *
+     * @param region the name of the region
+     * @param maxSize the maximum number of entries
+     */
+    public void setMaxSize(String region, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0");
+        }
+        regionMaxSizes.put(region, maxSize);
+        cache.computeIfPresent(region, (k, r) -> r.getMaxSize() == maxSize ? r : r.resize(maxSize));
+    }
+
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private Region getRegion(String name) {
+        return cache.computeIfAbsent(name, k -> new Region(getMaxSize(name)));
+    }
+
+    private static final class Entry {
+
+        private final Object value;
+        private final long expiresAt;
+
+        private Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Region {
+
+        private final Segment[] segments;
+        private final int maxSize;
+
+        private Region(int maxSize) {
+            this.maxSize = maxSize;
+            int count = 1;
+            while (count < MAX_SEGMENTS && maxSize / (count * 2) >= MIN_SEGMENT_SIZE) {
+                count *= 2;
+            }
+            segments = new Segment[count];
+            for (int i = 0; i < count; i++) {
+                segments[i] = new Segment(maxSize / count + (i < maxSize % count ? 1 : 0));
+            }
+        }
+
+        private Region resize(int maxSize) {
+            Region resized = new Region(maxSize);
+            for (Segment segment : segments) {
+                segment.transferTo(resized);
+            }
+            return resized;
+        }
+
+        private int getMaxSize() {
+            return maxSize;
+        }
+
+        private Segment segment(String key) {
+            int hash = key.hashCode();
+            return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+        }
+
+        private Object get(String key, long now, CacheTags tags) {
+            return segment(key).get(key, now, tags);
+        }
+
+        private void put(String key, Object value, long expiresAt) {
+            segment(key).put(key, new Entry(value, expiresAt));
+        }
+
+        private void remove(String key) {
+            segment(key).remove(key);
+        }
+
+        private CacheStatistics getStatistics() {
+            long hitCount = 0;
+            long missCount = 0;
+            long evictionCount = 0;
+            long size = 0;
+            for (Segment segment : segments) {
+                CacheStatistics statistics = segment.getStatistics();
+                hitCount += statistics.getHitCount();
+                missCount += statistics.getMissCount();
+                evictionCount += statistics.getEvictionCount();
+                size += statistics.getSize();
+            }
+            return new CacheStatistics(hitCount, missCount, evictionCount, size);
+        }
+    }
+
+    private static final class Segment {
+
+        private final LinkedHashMap<String, Entry> entries;
+        private long hitCount;
+        private long missCount;
+        private long evictionCount;
+
+        private Segment(int maxSize) {
+            entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    if (size() > maxSize) {
+                        evictionCount++;
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private synchronized Object get(String key, long now, CacheTags tags) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                missCount++;
+                return null;
+            }
+            Object value = tags.unwrap(entry.value, now);
+            if (entry.expiresAt <= now || (value == null && entry.value != null)) {
+                entries.remove(key);
+                evictionCount++;
+                missCount++;
+                return null;
+            }
+            hitCount++;
+            return value;
+        }
+
+        private synchronized void put(String key, Entry entry) {
+            entries.put(key, entry);
+        }
+
+        private synchronized void remove(String key) {
+            entries.remove(key);
+        }
+
+        private synchronized void transferTo(Region region) {
+            // least recently used first, so the most recently used entries are kept
+            entries.forEach((key, entry) -> region.segment(key).put(key, entry));
+        }
+
+        private synchronized CacheStatistics getStatistics() {
+            return new CacheStatistics(hitCount, missCount, evictionCount, entries.size());
+        }
     }
 }
@@ -23,6 +23,8 @@
  */
 package org.primefaces.cache;
 
+import java.util.function.Supplier;
+
 import org.ehcache.Cache;
 import org.ehcache.CacheManager;
 import org.ehcache.config.builders.CacheManagerBuilder;
@@ -31,8 +33,12 @@ import org.ehcache.xml.XmlConfiguration;
 public class EHCache3Provider implements CacheProvider {
 
     private final CacheManager cacheManager;
+    private final SingleFlight singleFlight;
+    private final CacheTags tags;
 
     public EHCache3Provider() {
+        singleFlight = new SingleFlight();
+        tags = new CacheTags(this);
         XmlConfiguration xmlConfig = new XmlConfiguration(this.getClass().getResource("/ehcache.xml"));
         cacheManager = CacheManagerBuilder.newCacheManager(xmlConfig);
         cacheManager.init();
@@ -41,7 +47,12 @@ public class EHCache3Provider implements CacheProvider {
     @Override
     public Object get(String region, String key) {
         Cache cacheRegion = getRegion(region);
-        return cacheRegion.get(key);
+        Object stored = cacheRegion.get(key);
+        Object value = tags.unwrap(stored, System.currentTimeMillis());
+        if (value == null && stored != null) {
+            cacheRegion.remove(key);
+        }
+        return value;
     }
 
     @Override
@@ -51,6 +62,22 @@ public class EHCache3Provider implements CacheProvider {
         cacheRegion.put(key, object);
     }
 
+    /**
+     * EHCache 3 only supports expiration per cache, so a time to live per entry is stored along with the value.
+     */
+    @Override
+    public void put(String region, String key, Object object, long timeToLive, String... tags) {
+        Cache cacheRegion = getRegion(region);
+
+        long expiresAt = timeToLive > 0 ? System.currentTimeMillis() + timeToLive : Long.MAX_VALUE;
+        cacheRegion.put(key, this.tags.wrap(object, expiresAt, tags));
+    }
+
+    @Override
+    public Object computeIfAbsent(String region, String key, long timeToLive, Supplier<?> supplier, String... tags) {
+        return singleFlight.computeIfAbsent(this, this.tags, region, key, timeToLive, supplier, tags);
+    }
+
     @Override
     public void remove(String region, String key) {
         Cache cacheRegion = getRegion(region);
@@ -58,6 +85,11 @@ public class EHCache3Provider implements CacheProvider {
         cacheRegion.remove(key);
     }
 
+    @Override
+    public void invalidateTag(String tag) {
+        tags.invalidate(tag);
+    }
+
     @Override
     public void clear() {
         // not supported by EHCache 3
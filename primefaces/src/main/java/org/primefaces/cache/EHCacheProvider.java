@@ -23,6 +23,8 @@
  */
 package org.primefaces.cache;
 
+import java.util.function.Supplier;
+
 import net.sf.ehcache.Cache;
 import net.sf.ehcache.CacheManager;
 import net.sf.ehcache.Element;
@@ -30,9 +32,13 @@ import net.sf.ehcache.Element;
 public class EHCacheProvider implements CacheProvider {
 
     private final CacheManager cacheManager;
+    private final SingleFlight singleFlight;
+    private final CacheTags tags;
 
     public EHCacheProvider() {
         cacheManager = CacheManager.create();
+        singleFlight = new SingleFlight();
+        tags = new CacheTags(this);
     }
 
     @Override
@@ -41,7 +47,11 @@ public class EHCacheProvider implements CacheProvider {
         Element element = cacheRegion.get(key);
 
         if (element != null) {
-            return element.getObjectValue();
+            Object value = tags.unwrap(element.getObjectValue(), System.currentTimeMillis());
+            if (value == null) {
+                cacheRegion.remove(key);
+            }
+            return value;
         }
         else {
             return null;
@@ -55,6 +65,22 @@ public class EHCacheProvider implements CacheProvider {
         cacheRegion.put(new Element(key, object));
     }
 
+    @Override
+    public void put(String region, String key, Object object, long timeToLive, String... tags) {
+        Cache cacheRegion = getRegion(region);
+
+        Element element = new Element(key, this.tags.wrap(object, Long.MAX_VALUE, tags));
+        if (timeToLive > 0) {
+            element.setTimeToLive((int) Math.max(1, (timeToLive + 999) / 1000));
+        }
+        cacheRegion.put(element);
+    }
+
+    @Override
+    public Object computeIfAbsent(String region, String key, long timeToLive, Supplier<?> supplier, String... tags) {
+        return singleFlight.computeIfAbsent(this, this.tags, region, key, timeToLive, supplier, tags);
+    }
+
     @Override
     public void remove(String region, String key) {
         Cache cacheRegion = getRegion(region);
@@ -62,6 +88,11 @@ public class EHCacheProvider implements CacheProvider {
         cacheRegion.remove(key);
     }
 
+    @Override
+    public void invalidateTag(String tag) {
+        tags.invalidate(tag);
+    }
+
     @Override
     public void clear() {
         String[] cacheNames = getCacheManager().getCacheNames();
@@ -0,0 +1,179 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.cache;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import javax.cache.Cache;
+import javax.cache.CacheException;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.Factory;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.EternalExpiryPolicy;
+import javax.cache.expiry.ExpiryPolicy;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * {@link CacheProvider} for any JCache (JSR-107) implementation, e.g. Hazelcast, Infinispan, Caffeine or EHCache 3.
+ * <p>
+ * Each region is a {@link Cache} of the {@link CacheManager}. Missing regions are created with the configured
+ * {@link ExpiryPolicy} and statistics setting; regions configured by the JCache implementation are used as they are.
+ * Subclass it to change the defaults, e.g.
+ * <code>super(Caching.getCachingProvider().getCacheManager(), CreatedExpiryPolicy.factoryOf(Duration.TEN_MINUTES), true)</code>.
+ */
+public class JCacheProvider implements CacheProvider {
+
+    private final CacheManager cacheManager;
+    private final Factory<? extends ExpiryPolicy> expiryPolicyFactory;
+    private final boolean statisticsEnabled;
+    private final SingleFlight singleFlight;
+    private final CacheTags tags;
+
+    public JCacheProvider() {
+        this(Caching.getCachingProvider().getCacheManager(), EternalExpiryPolicy.factoryOf(), true);
+    }
+
+    /**
+     * @param cacheManager the {@link CacheManager} holding the regions
+     * @param expiryPolicyFactory the {@link ExpiryPolicy} of created regions
+     * @param statisticsEnabled whether created regions collect statistics
+     */
+    public JCacheProvider(CacheManager cacheManager, Factory<? extends ExpiryPolicy> expiryPolicyFactory, boolean statisticsEnabled) {
+        this.cacheManager = cacheManager;
+        this.expiryPolicyFactory = expiryPolicyFactory;
+        this.statisticsEnabled = statisticsEnabled;
+        this.singleFlight = new SingleFlight();
+        this.tags = new CacheTags(this);
+    }
+
+    @Override
+    public Object get(String region, String key) {
+        Cache<Object, Object> cacheRegion = getRegion(region);
+        Object stored = cacheRegion.get(key);
+        Object value = tags.unwrap(stored, System.currentTimeMillis());
+        if (value == null && stored != null) {
+            cacheRegion.remove(key, stored);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(String region, String key, Object object) {
+        getRegion(region).put(key, object);
+    }
+
+    /**
+     * JCache only supports an {@link ExpiryPolicy} per cache, so a time to live per entry is stored along with the value.
+     */
+    @Override
+    public void put(String region, String key, Object object, long timeToLive, String... tags) {
+        long expiresAt = timeToLive > 0 ? System.currentTimeMillis() + timeToLive : Long.MAX_VALUE;
+        getRegion(region).put(key, this.tags.wrap(object, expiresAt, tags));
+    }
+
+    @Override
+    public Object computeIfAbsent(String region, String key, long timeToLive, Supplier<?> supplier, String... tags) {
+        return singleFlight.computeIfAbsent(this, this.tags, region, key, timeToLive, supplier, tags);
+    }
+
+    @Override
+    public void remove(String region, String key) {
+        getRegion(region).remove(key);
+    }
+
+    @Override
+    public void invalidateTag(String tag) {
+        tags.invalidate(tag);
+    }
+
+    @Override
+    public void clear() {
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * Reads the statistics of a region from its JCache statistics MBean.
+     * JCache does not report the number of entries, so {@link CacheStatistics#getSize()} is -1.
+     *
+     * @param region the name of the region
+     * @return the statistics or null if they are not enabled for the region
+     */
+    public CacheStatistics getStatistics(String region) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("javax.cache:type=CacheStatistics"
+                    + ",CacheManager=" + sanitize(cacheManager.getURI().toString())
+                    + ",Cache=" + sanitize(region));
+            if (!server.isRegistered(name)) {
+                return null;
+            }
+            return new CacheStatistics(
+                    (Long) server.getAttribute(name, "CacheHits"),
+                    (Long) server.getAttribute(name, "CacheMisses"),
+                    (Long) server.getAttribute(name, "CacheEvictions"),
+                    -1);
+        }
+        catch (JMException e) {
+            throw new CacheException(e);
+        }
+    }
+
+    protected Cache<Object, Object> getRegion(String regionName) {
+        Cache<Object, Object> region = cacheManager.getCache(regionName);
+        if (region == null) {
+            MutableConfiguration<Object, Object> configuration = new MutableConfiguration<>()
+                    .setExpiryPolicyFactory(expiryPolicyFactory)
+                    .setStatisticsEnabled(statisticsEnabled);
+            try {
+                region = cacheManager.createCache(regionName, configuration);
+            }
+            catch (CacheException e) {
+                // created concurrently
+                region = cacheManager.getCache(regionName);
+                if (region == null) {
+                    throw e;
+                }
+            }
+        }
+        return region;
+    }
+
+    public CacheManager getCacheManager() {
+        return cacheManager;
+    }
+
+    private static String sanitize(String value) {
+        // see JSR-107 specification, 12.3 management
+        return value == null ? "" : value.replaceAll("[,:=\n]", ".");
+    }
+}
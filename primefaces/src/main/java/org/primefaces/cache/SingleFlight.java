@@ -0,0 +1,153 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes sure a missing cache entry is computed only once, while concurrent callers for the same entry wait for its result.
+ * Helper for implementations of {@link CacheProvider#computeIfAbsent(String, String, long, Supplier, String...)}.
+ */
+public class SingleFlight {
+
+    private final ConcurrentMap<String, Flight> flights = new ConcurrentHashMap<>();
+
+    public Object computeIfAbsent(CacheProvider provider, String region, String key, long timeToLive, Supplier<?> supplier,
+            String... tags) {
+        return computeIfAbsent(provider, null, region, key, timeToLive, supplier, tags);
+    }
+
+    /**
+     * Gets an entry, or computes and puts it if absent. The versions of the tags are read before the value is computed,
+     * so an invalidation during the computation is not lost.
+     *
+     * @param provider the provider
+     * @param cacheTags the tag versions of the provider, null if the provider does not use {@link CacheTags}
+     * @param region the region
+     * @param key the key
+     * @param timeToLive the time to live in milliseconds, 0 to use the default of the region
+     * @param supplier computes the value, a null value is not cached
+     * @param tags the tags of the entry
+     * @return the cached or computed value
+     */
+    public Object computeIfAbsent(CacheProvider provider, CacheTags cacheTags, String region, String key, long timeToLive,
+            Supplier<?> supplier, String... tags) {
+        Object value = provider.get(region, key);
+        if (value != null) {
+            return value;
+        }
+
+        return execute(region, key, 0, () -> {
+            Object computed = provider.get(region, key);
+            if (computed == null) {
+                Map<String, Long> tagVersions = cacheTags == null || tags == null || tags.length == 0 ? null : cacheTags.getVersions(tags);
+                computed = supplier.get();
+                if (computed != null) {
+                    provider.put(region, key, tagVersions == null ? computed : cacheTags.pin(computed, tagVersions), timeToLive, tags);
+                }
+            }
+            return computed;
+        });
+    }
+
+    /**
+     * Runs the supplier, unless another thread is already running one for the same entry. In this case the result of
+     * the other thread is returned.
+     *
+     * @param region the region
+     * @param key the key
+     * @param waitTimeout the maximum time in milliseconds to wait for another thread, 0 to wait until it is done
+     * @param supplier computes the entry
+     * @return the computed value, or null if the wait timed out
+     */
+    public Object execute(String region, String key, long waitTimeout, Supplier<?> supplier) {
+        String flightKey = getFlightKey(region, key);
+        Flight flight = new Flight();
+        Flight existing = flights.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            // computing the same entry again in the same thread (nested) would wait forever
+            return existing.owner == Thread.currentThread() ? supplier.get() : await(existing, waitTimeout);
+        }
+
+        try {
+            Object value = supplier.get();
+            flight.complete(value);
+            return value;
+        }
+        catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        finally {
+            flights.remove(flightKey, flight);
+        }
+    }
+
+    /**
+     * @param region the region
+     * @param key the key
+     * @return true if a thread is currently computing the entry
+     */
+    public boolean isInFlight(String region, String key) {
+        return flights.containsKey(getFlightKey(region, key));
+    }
+
+    private static String getFlightKey(String region, String key) {
+        return region + '\u0000' + key;
+    }
+
+    private static Object await(Flight flight, long waitTimeout) {
+        try {
+            return waitTimeout > 0 ? flight.get(waitTimeout, TimeUnit.MILLISECONDS) : flight.get();
+        }
+        catch (TimeoutException e) {
+            return null;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static final class Flight extends CompletableFuture<Object> {
+
+        private final Thread owner = Thread.currentThread();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.component.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import javax.faces.FacesException;
+
+/**
+ * Rendered content of a {@link UICache}, stored with an expiration time and optionally as UTF-8 bytes, which are
+ * deflate compressed when larger than {@link #DEFLATE_THRESHOLD}.
+ * Expired content is kept in the cache, to be served while one request renders the new content.
+ */
+public class CachedFragment implements Serializable {
+
+    public static final int DEFLATE_THRESHOLD = 1024;
+
+    private static final long serialVersionUID = 1L;
+
+    private final String output;
+    private final byte[] bytes;
+    private final int length;
+    private final boolean deflated;
+    private final long expiresAt;
+
+    public CachedFragment(String output, long expiresAt) {
+        this.output = output;
+        this.bytes = null;
+        this.length = 0;
+        this.deflated = false;
+        this.expiresAt = expiresAt;
+    }
+
+    private CachedFragment(byte[] bytes, int length, boolean deflated, long expiresAt) {
+        this.output = null;
+        this.bytes = bytes;
+        this.length = length;
+        this.deflated = deflated;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Creates a fragment stored as UTF-8 bytes.
+     *
+     * @param output the rendered content
+     * @param expiresAt the expiration time in milliseconds since the epoch, {@link Long#MAX_VALUE} for none
+     * @param deflate whether to compress the bytes if larger than {@link #DEFLATE_THRESHOLD}
+     * @return the fragment
+     */
+    public static CachedFragment ofBytes(String output, long expiresAt, boolean deflate) {
+        byte[] utf8 = output.getBytes(StandardCharsets.UTF_8);
+        if (!deflate || utf8.length <= DEFLATE_THRESHOLD) {
+            return new CachedFragment(utf8, utf8.length, false, expiresAt);
+        }
+
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(utf8);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(utf8.length / 4);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return new CachedFragment(out.toByteArray(), utf8.length, true, expiresAt);
+        }
+        finally {
+            deflater.end();
+        }
+    }
+
+    public String getOutput() {
+        if (output != null) {
+            return output;
+        }
+        if (!deflated) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+            byte[] utf8 = new byte[length];
+            int offset = 0;
+            while (offset < length && !inflater.finished()) {
+                int inflated = inflater.inflate(utf8, offset, length - offset);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated or corrupt cached fragment");
+                }
+                offset += inflated;
+            }
+            return new String(utf8, 0, offset, StandardCharsets.UTF_8);
+        }
+        catch (DataFormatException e) {
+            throw new FacesException(e);
+        }
+        finally {
+            inflater.end();
+        }
+    }
+
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+}
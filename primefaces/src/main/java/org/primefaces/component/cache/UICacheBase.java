@@ -37,7 +37,9 @@ public abstract class UICacheBase extends UIPanel {
         disabled,
         region,
         key,
-        processEvents
+        processEvents,
+        timeToLive,
+        waitTimeout
     }
 
     public UICacheBase() {
@@ -81,4 +83,20 @@ public abstract class UICacheBase extends UIPanel {
         getStateHelper().put(PropertyKeys.processEvents, processEvents);
     }
 
+    public int getTimeToLive() {
+        return (Integer) getStateHelper().eval(PropertyKeys.timeToLive, 0);
+    }
+
+    public void setTimeToLive(int timeToLive) {
+        getStateHelper().put(PropertyKeys.timeToLive, timeToLive);
+    }
+
+    public int getWaitTimeout() {
+        return (Integer) getStateHelper().eval(PropertyKeys.waitTimeout, 5000);
+    }
+
+    public void setWaitTimeout(int waitTimeout) {
+        getStateHelper().put(PropertyKeys.waitTimeout, waitTimeout);
+    }
+
 }
\ No newline at end of file
@@ -25,6 +25,7 @@ package org.primefaces.component.cache;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -33,6 +34,8 @@ import javax.faces.context.FacesContext;
 import javax.faces.context.ResponseWriter;
 
 import org.primefaces.cache.CacheProvider;
+import org.primefaces.cache.SingleFlight;
+import org.primefaces.config.PrimeConfiguration;
 import org.primefaces.context.PrimeApplicationContext;
 import org.primefaces.context.PrimeRequestContext;
 import org.primefaces.renderkit.CoreRenderer;
@@ -41,6 +44,8 @@ public class UICacheRenderer extends CoreRenderer {
 
     private static final Logger LOGGER = Logger.getLogger(UICacheRenderer.class.getName());
 
+    private final SingleFlight singleFlight = new SingleFlight();
+
     @Override
     public void encodeChildren(FacesContext context, UIComponent component) throws IOException {
         UICache uiCache = (UICache) component;
@@ -68,18 +73,17 @@ public class UICacheRenderer extends CoreRenderer {
                 region = context.getViewRoot().getViewId();
             }
 
-            String output = (String) cacheProvider.get(region, key);
+            Object cached = cacheProvider.get(region, key);
+            String output = getFreshOutput(cached);
             if (output == null) {
-                StringWriter stringWriter = new StringWriter();
-                ResponseWriter clonedWriter = writer.cloneWithWriter(stringWriter);
-                context.setResponseWriter(clonedWriter);
-                renderChildren(context, uiCache);
-
-                output = stringWriter.getBuffer().toString();
-                cacheProvider.put(region, key, output);
-                context.setResponseWriter(writer);
-
-                uiCache.setCacheSetInCurrentRequest(true);
+                String stale = getOutput(cached);
+                if (stale != null && singleFlight.isInFlight(region, key)) {
+                    // another request renders the new content, serve the previous one meanwhile
+                    output = stale;
+                }
+                else {
+                    output = render(context, uiCache, cacheProvider, region, key, stale);
+                }
             }
 
             writer.write(output);
@@ -89,6 +93,80 @@ public class UICacheRenderer extends CoreRenderer {
         }
     }
 
+    /**
+     * Renders the content and puts it into the cache. Concurrent requests for the same entry wait for this rendering,
+     * at most {@link UICache#getWaitTimeout()} milliseconds, instead of rendering it too.
+     */
+    protected String render(FacesContext context, UICache uiCache, CacheProvider cacheProvider, String region, String key, String stale)
+            throws IOException {
+        try {
+            String output = (String) singleFlight.execute(region, key, uiCache.getWaitTimeout(), () -> {
+                String fresh = getFreshOutput(cacheProvider.get(region, key));
+                if (fresh != null) {
+                    return fresh;
+                }
+
+                String rendered = renderToString(context, uiCache);
+                cacheProvider.put(region, key, toCacheValue(context, uiCache, rendered));
+                return rendered;
+            });
+
+            if (output == null) {
+                // waiting for the other request timed out
+                output = stale != null ? stale : renderToString(context, uiCache);
+            }
+            return output;
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    protected String renderToString(FacesContext context, UICache uiCache) {
+        ResponseWriter writer = context.getResponseWriter();
+        StringWriter stringWriter = new StringWriter();
+        context.setResponseWriter(writer.cloneWithWriter(stringWriter));
+        try {
+            renderChildren(context, uiCache);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        finally {
+            context.setResponseWriter(writer);
+        }
+
+        uiCache.setCacheSetInCurrentRequest(true);
+        return stringWriter.getBuffer().toString();
+    }
+
+    /**
+     * Converts the rendered content to the value stored in the cache, a plain String unless a time to live or a compact
+     * storage via {@link org.primefaces.util.Constants.ContextParams#CACHE_FRAGMENT_STORAGE} is configured.
+     */
+    protected Object toCacheValue(FacesContext context, UICache uiCache, String output) {
+        PrimeConfiguration config = PrimeApplicationContext.getCurrentInstance(context).getConfig();
+        int timeToLive = uiCache.getTimeToLive();
+        long expiresAt = timeToLive > 0 ? System.currentTimeMillis() + timeToLive * 1000L : Long.MAX_VALUE;
+
+        if (config.isCacheFragmentsAsBytes()) {
+            return CachedFragment.ofBytes(output, expiresAt, config.isCacheFragmentsDeflated());
+        }
+        return timeToLive > 0 ? new CachedFragment(output, expiresAt) : output;
+    }
+
+    protected String getFreshOutput(Object cached) {
+        if (cached instanceof CachedFragment) {
+            CachedFragment fragment = (CachedFragment) cached;
+            return fragment.isExpired(System.currentTimeMillis()) ? null : fragment.getOutput();
+        }
+        return (String) cached;
+    }
+
+    protected String getOutput(Object cached) {
+        return cached instanceof CachedFragment ? ((CachedFragment) cached).getOutput() : (String) cached;
+    }
+
     @Override
     public boolean getRendersChildren() {
         return true;
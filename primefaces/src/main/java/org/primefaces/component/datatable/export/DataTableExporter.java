@@ -23,19 +23,33 @@
  */
 package org.primefaces.component.datatable.export;
 
+import java.io.IOException;
 import java.lang.reflect.Array;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.faces.FacesException;
 import javax.faces.context.FacesContext;
 
 import org.primefaces.component.datatable.DataTable;
+import org.primefaces.component.export.ExportConfiguration;
 import org.primefaces.component.export.ExporterOptions;
 import org.primefaces.component.export.TableExporter;
+import org.primefaces.context.PrimeApplicationContext;
+import org.primefaces.model.DefaultLazyDataModel;
+import org.primefaces.model.FilterMeta;
+import org.primefaces.model.JPALazyDataModel;
 import org.primefaces.model.LazyDataModel;
+import org.primefaces.model.SortMeta;
 
 public abstract class DataTableExporter<P, O extends ExporterOptions> extends TableExporter<DataTable, P, O> {
 
     private static final int NO_ROW_INDEX_REQUIRED = Integer.MIN_VALUE;
 
+    private final Map<DataTable, CompletableFuture<LazyBatch>> prefetchedBatches = new HashMap<>();
+
     protected DataTableExporter(O defaultOptions) {
         super(defaultOptions);
     }
@@ -44,6 +58,63 @@ public abstract class DataTableExporter<P, O extends ExporterOptions> extends Ta
         super(defaultOptions, supportedFacetTypes, joinComponents);
     }
 
+    @Override
+    public void export(FacesContext context, List<DataTable> tables, ExportConfiguration exportConfiguration) throws IOException {
+        try {
+            super.export(context, tables, exportConfiguration);
+        }
+        finally {
+            // a failed export must not keep the tables referenced; queries already running are not interrupted,
+            // their results are discarded
+            prefetchedBatches.values().forEach(f -> f.cancel(true));
+            prefetchedBatches.clear();
+        }
+    }
+
+    @Override
+    protected void prefetch(FacesContext context, List<DataTable> tables) {
+        if (exportConfiguration.isPageOnly() || exportConfiguration.isSelectionOnly()) {
+            return;
+        }
+
+        PrimeApplicationContext applicationContext = PrimeApplicationContext.getCurrentInstance(context);
+        Integer bufferSize = exportConfiguration.getBufferSize();
+        for (DataTable table : tables) {
+            if (!table.isLazy()) {
+                continue;
+            }
+
+            // sort and filter metadata must be resolved on the request thread, only the queries are executed concurrently
+            LazyDataModel<Object> lazyDataModel = (LazyDataModel<Object>) table.getValue();
+            if (!isPrefetchable(lazyDataModel)) {
+                // loaded sequentially by exportAll
+                continue;
+            }
+            Map<String, SortMeta> sortBy = table.getActiveSortMeta();
+            Map<String, FilterMeta> filterBy = table.getActiveFilterMeta();
+
+            prefetchedBatches.put(table, CompletableFuture.supplyAsync(() -> {
+                int batchSize = Objects.requireNonNullElseGet(bufferSize, () -> lazyDataModel.count(filterBy));
+                List<Object> items = batchSize > 0
+                        ? lazyDataModel.load(0, batchSize, sortBy, filterBy)
+                        : Collections.emptyList();
+                return new LazyBatch(batchSize, items);
+            }, applicationContext.getExporterExecutor()));
+        }
+    }
+
+    /**
+     * Whether the queries of the given model may run outside of the request thread, i.e. without {@link FacesContext}.
+     * {@link DefaultLazyDataModel} and {@link JPALazyDataModel} access the {@link FacesContext} to filter and sort and
+     * the latter uses an EntityManager bound to the request, so they are always loaded on the request thread.
+     *
+     * @param lazyDataModel the model of a target table
+     * @return <code>true</code> if the model can be loaded concurrently
+     */
+    protected boolean isPrefetchable(LazyDataModel<?> lazyDataModel) {
+        return !(lazyDataModel instanceof DefaultLazyDataModel) && !(lazyDataModel instanceof JPALazyDataModel);
+    }
+
     @Override
     protected void exportSelectionOnly(FacesContext context, DataTable table) {
         Object selection = table.getSelection();
@@ -97,7 +168,10 @@ public abstract class DataTableExporter<P, O extends ExporterOptions> extends Ta
             LazyDataModel<Object> lazyDataModel = (LazyDataModel<Object>) table.getValue();
             Integer bufferSize = exportConfiguration.getBufferSize();
             boolean bufferized = bufferSize != null;
-            int batchSize = Objects.requireNonNullElseGet(bufferSize, () -> lazyDataModel.count(table.getActiveFilterMeta()));
+            LazyBatch prefetched = getPrefetchedBatch(context, table);
+            int batchSize = prefetched != null
+                    ? prefetched.size
+                    : Objects.requireNonNullElseGet(bufferSize, () -> lazyDataModel.count(table.getActiveFilterMeta()));
 
             if (batchSize > 0) {
                 List<?> wrappedData = lazyDataModel.getWrappedData();
@@ -107,7 +181,12 @@ public abstract class DataTableExporter<P, O extends ExporterOptions> extends Ta
                 List<Object> items;
 
                 do {
-                    items = lazyDataModel.load(offset, batchSize, table.getActiveSortMeta(), table.getActiveFilterMeta());
+                    if (offset == 0 && prefetched != null) {
+                        items = prefetched.items;
+                    }
+                    else {
+                        items = lazyDataModel.load(offset, batchSize, table.getActiveSortMeta(), table.getActiveFilterMeta());
+                    }
                     lazyDataModel.setWrappedData(items);
                     for (int rowIndex = 0; rowIndex < items.size(); rowIndex++) {
                         exportRow(context, table, rowIndex);
@@ -146,4 +225,38 @@ public abstract class DataTableExporter<P, O extends ExporterOptions> extends Ta
         super.addCells(context, table);
     }
 
+    private LazyBatch getPrefetchedBatch(FacesContext context, DataTable table) {
+        CompletableFuture<LazyBatch> future = prefetchedBatches.remove(table);
+        if (future == null) {
+            return null;
+        }
+
+        long timeout = PrimeApplicationContext.getCurrentInstance(context).getConfig().getExporterParallelTimeout();
+        try {
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        }
+        catch (ExecutionException e) {
+            throw new FacesException(e.getCause());
+        }
+        catch (TimeoutException e) {
+            // does not interrupt the running query, only its result is discarded
+            future.cancel(true);
+            throw new FacesException("Loading the data of table '" + table.getClientId(context) + "' took longer than " + timeout + "ms", e);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FacesException(e);
+        }
+    }
+
+    private static class LazyBatch {
+
+        private final int size;
+        private final List<Object> items;
+
+        LazyBatch(int size, List<Object> items) {
+            this.size = size;
+            this.items = items;
+        }
+    }
 }
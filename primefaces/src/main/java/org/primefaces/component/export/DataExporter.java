@@ -68,6 +68,7 @@ public class DataExporter implements ActionListener, StateHolder {
     private MethodExpression onRowExport;
     private ValueExpression exporter;
     private ValueExpression bufferSize;
+    private ValueExpression parallel;
 
     public DataExporter() {
         ResourceUtils.addComponentResource(FacesContext.getCurrentInstance(), "filedownload/filedownload.js");
@@ -137,6 +138,13 @@ public class DataExporter implements ActionListener, StateHolder {
             bufferSizeTmp = (Integer) bufferSize.getValue(elContext);
         }
 
+        boolean isParallel = false;
+        if (parallel != null) {
+            isParallel = parallel.isLiteralText()
+                    ? Boolean.parseBoolean(parallel.getValue(context.getELContext()).toString())
+                    : (Boolean) parallel.getValue(context.getELContext());
+        }
+
         try {
             List<UIComponent> components = SearchExpressionUtils.contextlessResolveComponents(context, event.getComponent(), tables);
             Class<? extends UIComponent> targetClass = guessTargetClass(components);
@@ -175,6 +183,7 @@ public class DataExporter implements ActionListener, StateHolder {
                     .onRowExport(onRowExport)
                     .outputStream(outputStream)
                     .bufferSize(bufferSizeTmp)
+                    .parallel(isParallel)
                     .build();
 
             exporterInstance.export(context, components, config);
@@ -272,11 +281,12 @@ public class DataExporter implements ActionListener, StateHolder {
         exporter = (ValueExpression) values[13];
         onRowExport = (MethodExpression) values[14];
         bufferSize = (ValueExpression) values[15];
+        parallel = (ValueExpression) values[16];
     }
 
     @Override
     public Object saveState(FacesContext context) {
-        Object[] values = new Object[16];
+        Object[] values = new Object[17];
 
         values[0] = target;
         values[1] = type;
@@ -294,6 +304,7 @@ public class DataExporter implements ActionListener, StateHolder {
         values[13] = exporter;
         values[14] = onRowExport;
         values[15] = bufferSize;
+        values[16] = parallel;
 
         return (values);
     }
@@ -391,6 +402,11 @@ public class DataExporter implements ActionListener, StateHolder {
             return this;
         }
 
+        public Builder parallel(ValueExpression parallel) {
+            exporter.parallel = parallel;
+            return this;
+        }
+
         public DataExporter build() {
             return exporter;
         }
@@ -48,6 +48,7 @@ public class DataExporterTagHandler extends TagHandler {
     private final TagAttribute exporter;
     private final TagAttribute onRowExport;
     private final TagAttribute bufferSize;
+    private final TagAttribute parallel;
 
     public DataExporterTagHandler(TagConfig tagConfig) {
         super(tagConfig);
@@ -67,6 +68,7 @@ public class DataExporterTagHandler extends TagHandler {
         exporter = getAttribute("exporter");
         onRowExport = getAttribute("onRowExport");
         bufferSize = getAttribute("bufferSize");
+        parallel = getAttribute("parallel");
     }
 
     @Override
@@ -91,6 +93,7 @@ public class DataExporterTagHandler extends TagHandler {
         ValueExpression exporterVE = null;
         MethodExpression onRowExportME = null;
         ValueExpression bufferSizeVE = null;
+        ValueExpression parallelVE = null;
 
         if (encoding != null) {
             encodingVE = encoding.getValueExpression(faceletContext, Object.class);
@@ -131,6 +134,9 @@ public class DataExporterTagHandler extends TagHandler {
         if (bufferSize != null) {
             bufferSizeVE = bufferSize.getValueExpression(faceletContext, Integer.class);
         }
+        if (parallel != null) {
+            parallelVE = parallel.getValueExpression(faceletContext, Object.class);
+        }
         ActionSource actionSource = (ActionSource) parent;
         DataExporter dataExporter = DataExporter.builder()
                     .target(targetVE)
@@ -149,6 +155,7 @@ public class DataExporterTagHandler extends TagHandler {
                     .visibleOnly(visibleOnlyVE)
                     .onRowExport(onRowExportME)
                     .bufferSize(bufferSizeVE)
+                    .parallel(parallelVE)
                     .build();
         actionSource.addActionListener(dataExporter);
     }
@@ -41,6 +41,7 @@ public class ExportConfiguration {
     private MethodExpression onRowExport;
     private OutputStream outputStream;
     private Integer bufferSize;
+    private boolean parallel;
 
     public ExportConfiguration() {
         // NOOP
@@ -123,6 +124,11 @@ public class ExportConfiguration {
             return this;
         }
 
+        public Builder parallel(boolean parallel) {
+            this.config.parallel = parallel;
+            return this;
+        }
+
         public ExportConfiguration build() {
             return config;
         }
@@ -144,6 +150,7 @@ public class ExportConfiguration {
                 ", onRowExport=" + onRowExport +
                 ", outputStream=" + outputStream +
                 ", bufferSize=" + bufferSize +
+                ", parallel=" + parallel +
                 '}';
     }
 
@@ -198,4 +205,8 @@ public class ExportConfiguration {
     public Integer getBufferSize() {
         return bufferSize;
     }
+
+    public boolean isParallel() {
+        return parallel;
+    }
 }
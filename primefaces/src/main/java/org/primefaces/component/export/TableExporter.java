@@ -109,6 +109,10 @@ public abstract class TableExporter<T extends UIComponent & UITable, D, O extend
         try {
             preExport(context);
 
+            if (exportConfiguration.isParallel() && tables.size() > 1) {
+                prefetch(context, tables);
+            }
+
             ExportVisitCallback exportCallback = new ExportVisitCallback(tables);
             exportCallback.export(context);
 
@@ -244,6 +248,18 @@ public abstract class TableExporter<T extends UIComponent & UITable, D, O extend
 
     protected abstract void exportSelectionOnly(FacesContext context, T table);
 
+    /**
+     * Called before the tables are visited when {@link ExportConfiguration#isParallel()} is enabled and more than one table is exported.
+     * Implementations may start loading the data of independent tables concurrently here; the tables itself are still
+     * exported one after another on the request thread (in their original order) as the component tree is not thread-safe.
+     *
+     * @param context the FacesContext
+     * @param tables the tables to export
+     */
+    protected void prefetch(FacesContext context, List<T> tables) {
+        // NOOP
+    }
+
     protected void preExport(FacesContext context) throws IOException {
         document = createDocument(context);
         if (exportConfiguration.getPreProcessor() != null) {
@@ -25,22 +25,54 @@ package org.primefaces.component.fileupload;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
 import javax.faces.FacesException;
 import javax.faces.context.FacesContext;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 
+import org.primefaces.context.PrimeApplicationContext;
 import org.primefaces.model.file.*;
 import org.primefaces.util.FileUploadUtils;
 
 public abstract class AbstractFileUploadDecoder<T extends HttpServletRequest> implements FileUploadDecoder, FileUploadChunkDecoder<T> {
 
+    /**
+     * The target file inside the chunk directory, each chunk is written at its offset into it.
+     */
+    protected static final String ASSEMBLY_FILE = "upload.part";
+
+    /**
+     * Records the byte ranges received so far, one <code>begin-end</code> line per chunk.
+     */
+    protected static final String RANGES_FILE = "ranges";
+
+    /**
+     * Marks a directory as chunk directory, so only directories created by PrimeFaces are removed by the {@link FileUploadChunkSweeper}.
+     */
+    protected static final String MARKER_FILE = ".primefaces-upload";
+
     private static final Logger LOGGER = Logger.getLogger(AbstractFileUploadDecoder.class.getName());
 
+    // striped, so concurrent chunks of one upload serialize their bookkeeping without a lock per upload to clean up
+    private static final Object[] CHUNK_LOCKS = IntStream.range(0, 64).mapToObj(i -> new Object()).toArray();
+
+    // chunk directories with chunks being written, which must not be removed by the FileUploadChunkSweeper
+    private static final ConcurrentMap<Path, Integer> CHUNKS_IN_FLIGHT = new ConcurrentHashMap<>();
+
     @Override
     public void decode(FacesContext context, FileUpload fileUpload) {
         T request = getRequest(context);
@@ -117,17 +149,63 @@ public abstract class AbstractFileUploadDecoder<T extends HttpServletRequest> im
 
         Path chunksDir = FileUploadUtils.getChunkDir(request);
 
-        writeChunk(chunk, chunksDir, contentRange);
+        synchronized (getChunkLock(chunksDir)) {
+            Files.createDirectories(chunksDir);
+            Path marker = chunksDir.resolve(MARKER_FILE);
+            if (!Files.exists(marker)) {
+                Files.createFile(marker);
+            }
+            migrateChunkFiles(chunksDir);
+            CHUNKS_IN_FLIGHT.merge(chunksDir, 1, Integer::sum);
+        }
 
-        if (contentRange.isLastChunk()) {
-            UploadedFile uploadedFile = processLastChunk(request, chunk, chunksDir, contentRange, fileUpload.getSizeLimit());
-            request.setAttribute(MULTIPARTS, uploadedFile);
-            fileUpload.setSubmittedValue(new UploadedFileWrapper(uploadedFile));
+        UploadedFile uploadedFile;
+        try {
+            PrimeApplicationContext applicationContext = PrimeApplicationContext.getCurrentInstance(request.getServletContext());
+            FileUploadChunkSweeper sweeper = applicationContext == null ? null : applicationContext.getFileUploadChunkSweeper();
+            if (sweeper != null) {
+                sweeper.register(chunksDir.getParent());
+            }
+
+            // the data of several chunks of the same file may be written concurrently and in any order
+            writeChunk(chunk, chunksDir, contentRange);
+
+            synchronized (getChunkLock(chunksDir)) {
+                long uploadedBytes = addRange(chunksDir, contentRange);
+                if (uploadedBytes < contentRange.getChunkTotalFileSize()) {
+                    return;
+                }
+
+                // all ranges are present, no matter if this is the last chunk of the file
+                uploadedFile = processLastChunk(request, chunk, chunksDir, contentRange, fileUpload.getSizeLimit());
+            }
+        }
+        finally {
+            synchronized (getChunkLock(chunksDir)) {
+                CHUNKS_IN_FLIGHT.computeIfPresent(chunksDir, (k, count) -> count <= 1 ? null : count - 1);
+            }
         }
+
+        request.setAttribute(MULTIPARTS, uploadedFile);
+        fileUpload.setSubmittedValue(new UploadedFileWrapper(uploadedFile));
     }
 
     @Override
     public long decodeUploadedBytes(T request) {
+        Path chunkDir = FileUploadUtils.getChunkDir(request);
+        Path ranges = chunkDir.resolve(RANGES_FILE);
+        if (Files.exists(ranges)) {
+            synchronized (getChunkLock(chunkDir)) {
+                try {
+                    return getUploadedBytes(readRanges(ranges));
+                }
+                catch (IOException e) {
+                    LOGGER.log(Level.SEVERE, e.getMessage(), e);
+                    return 0;
+                }
+            }
+        }
+
         long uploadedBytes = 0;
         for (Path chunk : FileUploadUtils.listChunks(request)) {
             try {
@@ -145,19 +223,92 @@ public abstract class AbstractFileUploadDecoder<T extends HttpServletRequest> im
     @Override
     public void deleteChunks(T request) throws IOException {
         Path chunkDir = FileUploadUtils.getChunkDir(request);
-        List<Path> chunks = FileUploadUtils.listChunks(chunkDir);
-        deleteChunkFolder(chunkDir, chunks);
+        if (!chunkDir.toFile().exists()) {
+            return;
+        }
+        synchronized (getChunkLock(chunkDir)) {
+            List<Path> chunks = FileUploadUtils.listChunks(chunkDir);
+            deleteChunkFolder(chunkDir, chunks);
+        }
     }
 
+    /**
+     * Writes the chunk at its offset into a preallocated file inside the chunk directory, so the chunks never have
+     * to be read and copied again to assemble the whole file. Chunks of the same file may be written concurrently,
+     * the range is recorded by {@link #addRange(Path, ContentRange)} afterwards.
+     *
+     * @param uploadedFile the chunk
+     * @param path the chunk directory
+     * @param contentRange the range of the chunk
+     * @throws IOException if the chunk could not be written
+     */
     protected void writeChunk(UploadedFile uploadedFile, Path path, ContentRange contentRange) throws IOException {
-        if (!path.toFile().exists()) {
-            Files.createDirectory(path);
+        Files.createDirectories(path);
+
+        long position = contentRange.getChunkRangeBegin();
+        long length = contentRange.getChunkRangeEnd() - position + 1;
+        try (RandomAccessFile file = new RandomAccessFile(path.resolve(ASSEMBLY_FILE).toFile(), "rw");
+             InputStream is = uploadedFile.getInputStream();
+             ReadableByteChannel in = Channels.newChannel(is)) {
+            if (file.length() < contentRange.getChunkTotalFileSize()) {
+                // sparse on most file systems, only grows the file if no later chunk has already been written
+                file.setLength(contentRange.getChunkTotalFileSize());
+            }
+
+            FileChannel out = file.getChannel();
+            long written = 0;
+            while (written < length) {
+                long transferred = out.transferFrom(in, position + written, length - written);
+                if (transferred <= 0) {
+                    break;
+                }
+                written += transferred;
+            }
+
+            if (written != length || is.read() != -1) {
+                throw new IOException("Chunk does not match its Content-Range: " + contentRange.getChunkRangeBegin() + "-"
+                        + contentRange.getChunkRangeEnd());
+            }
         }
+    }
 
-        String chunkname = String.valueOf(contentRange.getPacket());
-        Path chunkFile = Paths.get(path.toFile().getAbsolutePath(), chunkname);
-        try (InputStream is = uploadedFile.getInputStream()) {
-            Files.copy(is, chunkFile, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * Records a completely written chunk. Must be called while holding the lock of the chunk directory.
+     *
+     * @param chunksDir the chunk directory
+     * @param contentRange the range of the written chunk
+     * @return the number of contiguous bytes received from the beginning of the file
+     * @throws IOException if the range could not be recorded
+     */
+    protected long addRange(Path chunksDir, ContentRange contentRange) throws IOException {
+        Path ranges = chunksDir.resolve(RANGES_FILE);
+        String range = contentRange.getChunkRangeBegin() + "-" + contentRange.getChunkRangeEnd() + "\n";
+        Files.write(ranges, range.getBytes(StandardCharsets.US_ASCII), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return getUploadedBytes(readRanges(ranges));
+    }
+
+    /**
+     * Moves chunks written one file each, e.g. by an upload started before the positional assembly, into the
+     * assembly file so the upload can be resumed. Must be called while holding the lock of the chunk directory.
+     *
+     * @param chunksDir the chunk directory
+     * @throws IOException if the chunks could not be moved
+     */
+    protected void migrateChunkFiles(Path chunksDir) throws IOException {
+        List<Path> chunks = FileUploadUtils.listChunks(chunksDir);
+        if (chunks.isEmpty()) {
+            return;
+        }
+
+        Path assembly = chunksDir.resolve(ASSEMBLY_FILE);
+        mergeChunks(chunks, assembly);
+        long size = Files.size(assembly);
+        if (size > 0) {
+            Files.write(chunksDir.resolve(RANGES_FILE), ("0-" + (size - 1) + "\n").getBytes(StandardCharsets.US_ASCII),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        }
+        for (Path p : chunks) {
+            Files.delete(p);
         }
     }
 
@@ -165,23 +316,100 @@ public abstract class AbstractFileUploadDecoder<T extends HttpServletRequest> im
         String fileKey = generateFileInfoKey(request);
         Path whole = Paths.get(getUploadDirectory(request), "[" + fileKey +  "]" + chunk.getFileName());
         Files.deleteIfExists(whole);
-        Files.createFile(whole);
 
-        List<Path> chunks = FileUploadUtils.listChunks(chunksDir);
-        for (Path p : chunks) {
-            Files.write(whole, Files.readAllBytes(p), StandardOpenOption.APPEND);
+        Path assembly = chunksDir.resolve(ASSEMBLY_FILE);
+        if (Files.exists(assembly)
+                && getUploadedBytes(readRanges(chunksDir.resolve(RANGES_FILE))) == contentRange.getChunkTotalFileSize()) {
+            // same file system, so just a rename
+            Files.move(assembly, whole, StandardCopyOption.REPLACE_EXISTING);
         }
 
+        List<Path> chunks = FileUploadUtils.listChunks(chunksDir);
         deleteChunkFolder(chunksDir, chunks);
 
-        if (Files.size(whole) != contentRange.getChunkTotalFileSize()) {
-            Files.delete(whole);
+        if (!Files.exists(whole) || Files.size(whole) != contentRange.getChunkTotalFileSize()) {
+            Files.deleteIfExists(whole);
             throw new IOException("Merged file does not meet expected size: " + contentRange.getChunkTotalFileSize());
         }
 
         return new NIOUploadedFile(whole, chunk.getFileName(), chunk.getContentType(), sizeLimit, FileUploadUtils.getWebkitRelativePath(request));
     }
 
+    /**
+     * Concatenates the chunk files by letting the file system transfer them, without loading them onto the heap.
+     *
+     * @param chunks the chunk files in order
+     * @param whole the target file
+     * @throws IOException if the chunks could not be merged
+     */
+    protected void mergeChunks(List<Path> chunks, Path whole) throws IOException {
+        try (FileChannel out = FileChannel.open(whole, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Path p : chunks) {
+                try (FileChannel in = FileChannel.open(p, StandardOpenOption.READ)) {
+                    long size = in.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the received ranges, a chunk which has been sent again only counts once.
+     *
+     * @param ranges the ranges file
+     * @return the end of each range by its begin, sorted by begin
+     * @throws IOException if the file could not be read
+     */
+    protected Map<Long, Long> readRanges(Path ranges) throws IOException {
+        Map<Long, Long> result = new TreeMap<>();
+        if (!Files.exists(ranges)) {
+            return result;
+        }
+        for (String line : Files.readAllLines(ranges, StandardCharsets.US_ASCII)) {
+            int separator = line.indexOf('-');
+            if (separator > 0) {
+                result.merge(Long.parseLong(line.substring(0, separator)), Long.parseLong(line.substring(separator + 1)), Math::max);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the contiguous watermark: the number of bytes received without a gap from the beginning of the file.
+     * Chunks received behind a gap are not counted, so a resumed upload continues at the first missing byte.
+     *
+     * @param ranges the received ranges, sorted by begin
+     * @return the number of contiguous bytes
+     */
+    protected long getUploadedBytes(Map<Long, Long> ranges) {
+        long watermark = 0;
+        for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+            if (range.getKey() > watermark) {
+                break;
+            }
+            watermark = Math.max(watermark, range.getValue() + 1);
+        }
+        return watermark;
+    }
+
+    /**
+     * Whether a chunk is currently written into the chunk directory. Must be called while holding {@link #getChunkLock(Path)}.
+     *
+     * @param chunksDir the chunk directory
+     * @return <code>true</code> if a chunk is being received
+     */
+    protected static boolean isChunkInFlight(Path chunksDir) {
+        return CHUNKS_IN_FLIGHT.containsKey(chunksDir);
+    }
+
+    protected static Object getChunkLock(Path chunksDir) {
+        return CHUNK_LOCKS[Math.floorMod(chunksDir.hashCode(), CHUNK_LOCKS.length)];
+    }
+
     protected String getContentRange(HttpServletRequest request) {
         return request.getHeader("Content-Range");
     }
@@ -191,6 +419,10 @@ public abstract class AbstractFileUploadDecoder<T extends HttpServletRequest> im
             Files.delete(p);
         }
 
+        Files.deleteIfExists(chunksDir.resolve(ASSEMBLY_FILE));
+        Files.deleteIfExists(chunksDir.resolve(RANGES_FILE));
+        Files.deleteIfExists(chunksDir.resolve(MARKER_FILE));
+
         Files.delete(chunksDir);
     }
 
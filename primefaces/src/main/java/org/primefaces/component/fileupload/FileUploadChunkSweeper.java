@@ -0,0 +1,298 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.component.fileupload;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.primefaces.util.FileUploadUtils;
+
+/**
+ * Removes the chunk directories of abandoned chunked uploads in the background: directories which have not received
+ * a chunk for longer than the max age and, if the disk usage of all incomplete uploads exceeds the quota, the least
+ * recently active ones first. Only the upload directories used by chunked uploads so far are swept, and only directories
+ * carrying the marker file of PrimeFaces are removed, as the upload directory may be shared with other applications.
+ */
+public class FileUploadChunkSweeper {
+
+    private static final Logger LOGGER = Logger.getLogger(FileUploadChunkSweeper.class.getName());
+
+    private static final long SWEEP_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+
+    // chunk directories are named by the hash code of the file id, see FileUploadChunkDecoder#generateFileInfoKey
+    private static final Pattern CHUNK_DIR_NAME = Pattern.compile("-?\\d+");
+    private static final Pattern CHUNK_FILE_NAME = Pattern.compile("\\d+");
+
+    private final long maxAge;
+    private final long maxDiskUsage;
+    private final Set<Path> uploadDirectories = ConcurrentHashMap.newKeySet();
+    private volatile ScheduledExecutorService executor;
+
+    private final AtomicLong sweptDirectories = new AtomicLong();
+    private final AtomicLong sweptBytes = new AtomicLong();
+    private volatile int pendingDirectories;
+    private volatile long pendingBytes;
+    private volatile long lastSweep;
+
+    /**
+     * @param maxAge milliseconds after the last chunk until an incomplete upload is removed, 0 to keep them
+     * @param maxDiskUsage maximum number of bytes of all incomplete uploads, 0 for unlimited
+     */
+    public FileUploadChunkSweeper(long maxAge, long maxDiskUsage) {
+        this.maxAge = maxAge;
+        this.maxDiskUsage = maxDiskUsage;
+    }
+
+    public boolean isEnabled() {
+        return maxAge > 0 || maxDiskUsage > 0;
+    }
+
+    /**
+     * Registers a directory in which chunk directories are created and starts sweeping in the background.
+     *
+     * @param uploadDirectory the upload directory
+     */
+    public void register(Path uploadDirectory) {
+        if (!isEnabled() || !uploadDirectories.add(uploadDirectory)) {
+            return;
+        }
+
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                        Thread thread = new Thread(r, "primefaces-upload-sweeper");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    executor.scheduleWithFixedDelay(this::sweepSafely, SWEEP_INTERVAL, SWEEP_INTERVAL, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+    }
+
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void sweepSafely() {
+        try {
+            sweep();
+        }
+        catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not sweep incomplete chunked uploads", e);
+        }
+    }
+
+    /**
+     * Removes the expired chunk directories and the oldest ones exceeding the disk quota.
+     */
+    public void sweep() {
+        List<ChunkDir> chunkDirs = new ArrayList<>();
+        for (Path uploadDirectory : uploadDirectories) {
+            collectChunkDirs(uploadDirectory, chunkDirs);
+        }
+        chunkDirs.sort(Comparator.comparingLong(ChunkDir::getLastModified));
+
+        long now = System.currentTimeMillis();
+        long diskUsage = chunkDirs.stream().mapToLong(ChunkDir::getSize).sum();
+        int remaining = chunkDirs.size();
+        for (ChunkDir chunkDir : chunkDirs) {
+            boolean expired = maxAge > 0 && now - chunkDir.getLastModified() > maxAge;
+            boolean overQuota = maxDiskUsage > 0 && diskUsage > maxDiskUsage;
+            if (!expired && !overQuota) {
+                // sorted oldest first, so all following ones are younger and the quota is met
+                break;
+            }
+            if (delete(chunkDir)) {
+                diskUsage -= chunkDir.getSize();
+                remaining--;
+                sweptDirectories.incrementAndGet();
+                sweptBytes.addAndGet(chunkDir.getSize());
+            }
+        }
+
+        pendingDirectories = remaining;
+        pendingBytes = diskUsage;
+        lastSweep = now;
+    }
+
+    protected void collectChunkDirs(Path uploadDirectory, List<ChunkDir> chunkDirs) {
+        if (!Files.isDirectory(uploadDirectory)) {
+            return;
+        }
+        try (Stream<Path> children = Files.list(uploadDirectory)) {
+            children.filter(p -> CHUNK_DIR_NAME.matcher(p.getFileName().toString()).matches() && Files.isDirectory(p))
+                    .forEach(p -> {
+                        ChunkDir chunkDir = readChunkDir(p);
+                        if (chunkDir != null) {
+                            chunkDirs.add(chunkDir);
+                        }
+                    });
+        }
+        catch (IOException e) {
+            LOGGER.log(Level.WARNING, e, () -> "Could not list upload directory " + uploadDirectory);
+        }
+    }
+
+    /**
+     * Reads a chunk directory, anything without the marker file or containing other files than chunks is not touched.
+     */
+    protected ChunkDir readChunkDir(Path dir) {
+        if (!Files.exists(dir.resolve(AbstractFileUploadDecoder.MARKER_FILE))) {
+            return null;
+        }
+
+        long size = 0;
+        long lastModified = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (!CHUNK_FILE_NAME.matcher(name).matches()
+                        && !AbstractFileUploadDecoder.ASSEMBLY_FILE.equals(name)
+                        && !AbstractFileUploadDecoder.RANGES_FILE.equals(name)
+                        && !AbstractFileUploadDecoder.MARKER_FILE.equals(name)) {
+                    return null;
+                }
+                size += Files.size(file);
+                lastModified = Math.max(lastModified, Files.getLastModifiedTime(file).toMillis());
+            }
+            FileTime dirModified = Files.getLastModifiedTime(dir);
+            return new ChunkDir(dir, size, Math.max(lastModified, dirModified.toMillis()));
+        }
+        catch (IOException e) {
+            // removed concurrently
+            return null;
+        }
+    }
+
+    protected boolean delete(ChunkDir chunkDir) {
+        Path dir = chunkDir.getPath();
+        synchronized (AbstractFileUploadDecoder.getChunkLock(dir)) {
+            // a chunk may be written right now or may have been received since the directory was read
+            if (AbstractFileUploadDecoder.isChunkInFlight(dir)) {
+                return false;
+            }
+            ChunkDir current = readChunkDir(dir);
+            if (current == null || current.getLastModified() > chunkDir.getLastModified()) {
+                return false;
+            }
+
+            try {
+                for (Path chunk : FileUploadUtils.listChunks(dir)) {
+                    Files.delete(chunk);
+                }
+                Files.deleteIfExists(dir.resolve(AbstractFileUploadDecoder.ASSEMBLY_FILE));
+                Files.deleteIfExists(dir.resolve(AbstractFileUploadDecoder.RANGES_FILE));
+                Files.deleteIfExists(dir.resolve(AbstractFileUploadDecoder.MARKER_FILE));
+                Files.delete(dir);
+                if (LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.fine(String.format("Removed incomplete chunked upload %s (%d bytes)", dir, chunkDir.getSize()));
+                }
+                return true;
+            }
+            catch (IOException e) {
+                LOGGER.log(Level.WARNING, e, () -> "Could not remove incomplete chunked upload " + dir);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return the number of chunk directories removed since startup
+     */
+    public long getSweptDirectories() {
+        return sweptDirectories.get();
+    }
+
+    /**
+     * @return the number of bytes removed since startup
+     */
+    public long getSweptBytes() {
+        return sweptBytes.get();
+    }
+
+    /**
+     * @return the number of incomplete uploads left after the last sweep
+     */
+    public int getPendingDirectories() {
+        return pendingDirectories;
+    }
+
+    /**
+     * @return the number of bytes of incomplete uploads left after the last sweep
+     */
+    public long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    /**
+     * @return the time of the last sweep in milliseconds since the epoch, 0 if not swept yet
+     */
+    public long getLastSweep() {
+        return lastSweep;
+    }
+
+    protected static final class ChunkDir {
+
+        private final Path path;
+        private final long size;
+        private final long lastModified;
+
+        ChunkDir(Path path, long size, long lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.component.fileupload;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.primefaces.util.Constants;
+import org.primefaces.util.LangUtils;
+
+/**
+ * Limits the number of concurrent uploads, globally and per session, and the rate of uploaded bytes.
+ * Requests over the limit are rejected right away with <code>429 Too Many Requests</code> (per session) or
+ * <code>503 Service Unavailable</code> (global) and a <code>Retry-After</code> header, instead of tying up
+ * request threads and disk I/O. One instance per web application is shared by the
+ * {@link org.primefaces.webapp.filter.FileUploadFilter} and the {@link FileUploadLimiterPhaseListener}.
+ */
+public class FileUploadLimiter {
+
+    public static final int SC_TOO_MANY_REQUESTS = 429;
+
+    private static final Logger LOGGER = Logger.getLogger(FileUploadLimiter.class.getName());
+
+    private static final String INSTANCE_KEY = FileUploadLimiter.class.getName();
+    private static final String PERMIT_KEY = FileUploadLimiter.class.getName() + ".PERMIT";
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final int maxConcurrent;
+    private final int maxConcurrentPerSession;
+    private final long maxBytesPerSecond;
+
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final ConcurrentMap<String, Integer> concurrentPerSession = new ConcurrentHashMap<>();
+
+    // token bucket, may become negative as a whole request is admitted at once
+    private long availableBytes;
+    private long lastRefill;
+
+    public FileUploadLimiter(int maxConcurrent, int maxConcurrentPerSession, long maxBytesPerSecond) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxConcurrentPerSession = maxConcurrentPerSession;
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        this.availableBytes = maxBytesPerSecond;
+        this.lastRefill = nanoTime();
+    }
+
+    public static FileUploadLimiter getInstance(ServletContext servletContext) {
+        FileUploadLimiter limiter = (FileUploadLimiter) servletContext.getAttribute(INSTANCE_KEY);
+        if (limiter == null) {
+            synchronized (FileUploadLimiter.class) {
+                limiter = (FileUploadLimiter) servletContext.getAttribute(INSTANCE_KEY);
+                if (limiter == null) {
+                    limiter = new FileUploadLimiter(
+                            getInitParameter(servletContext, Constants.ContextParams.UPLOAD_MAX_CONCURRENT),
+                            getInitParameter(servletContext, Constants.ContextParams.UPLOAD_MAX_CONCURRENT_PER_SESSION),
+                            getInitParameter(servletContext, Constants.ContextParams.UPLOAD_MAX_BYTES_PER_SECOND));
+                    servletContext.setAttribute(INSTANCE_KEY, limiter);
+                }
+            }
+        }
+        return limiter;
+    }
+
+    private static int getInitParameter(ServletContext servletContext, String name) {
+        String value = servletContext.getInitParameter(name);
+        return LangUtils.isBlank(value) ? 0 : Integer.parseInt(value);
+    }
+
+    public boolean isEnabled() {
+        return maxConcurrent > 0 || maxConcurrentPerSession > 0 || maxBytesPerSecond > 0;
+    }
+
+    /**
+     * Admits the upload request or rejects it by setting the status and <code>Retry-After</code> header on the response.
+     * An admitted request must be released by {@link #release(HttpServletRequest)} once it has been processed.
+     * The admission is recorded in a request attribute, so acquiring again for an already admitted request, e.g. by the
+     * phase listener after the filter, always succeeds without charging the limits again.
+     *
+     * @param request the upload request
+     * @param response the response to reject the request with
+     * @return <code>true</code> if the request has been admitted, <code>false</code> if it has been rejected
+     * @throws IOException if the rejection could not be sent
+     */
+    public boolean tryAcquire(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Permit permit = (Permit) request.getAttribute(PERMIT_KEY);
+        if (permit != null) {
+            return true;
+        }
+        if (!isEnabled()) {
+            return true;
+        }
+
+        if (maxConcurrent > 0 && concurrent.incrementAndGet() > maxConcurrent) {
+            concurrent.decrementAndGet();
+            reject(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, RETRY_AFTER_SECONDS);
+            return false;
+        }
+
+        String sessionId = null;
+        if (maxConcurrentPerSession > 0) {
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                sessionId = session.getId();
+                if (concurrentPerSession.merge(sessionId, 1, Integer::sum) > maxConcurrentPerSession) {
+                    releaseSession(sessionId);
+                    releaseGlobal();
+                    reject(response, SC_TOO_MANY_REQUESTS, RETRY_AFTER_SECONDS);
+                    return false;
+                }
+            }
+        }
+
+        if (maxBytesPerSecond > 0) {
+            long retryAfter = consumeBytes(Math.max(0, request.getContentLengthLong()));
+            if (retryAfter > 0) {
+                releaseSession(sessionId);
+                releaseGlobal();
+                reject(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, retryAfter);
+                return false;
+            }
+        }
+
+        request.setAttribute(PERMIT_KEY, new Permit(sessionId));
+        return true;
+    }
+
+    /**
+     * Releases the request admitted by {@link #tryAcquire(HttpServletRequest, HttpServletResponse)}, further calls do nothing.
+     *
+     * @param request the upload request
+     */
+    public void release(HttpServletRequest request) {
+        Permit permit = (Permit) request.getAttribute(PERMIT_KEY);
+        if (permit == null) {
+            return;
+        }
+        request.removeAttribute(PERMIT_KEY);
+        releaseSession(permit.sessionId);
+        releaseGlobal();
+    }
+
+    /**
+     * Takes the bytes from the budget, the request is admitted as long as the budget is not exhausted.
+     *
+     * @return 0 if admitted, otherwise the seconds until the budget is available again
+     */
+    protected synchronized long consumeBytes(long bytes) {
+        long now = nanoTime();
+        // in double, as elapsed nanos times bytes per second overflow long after a few minutes of idle time
+        double refill = (now - lastRefill) / 1_000_000_000.0 * maxBytesPerSecond;
+        if (refill >= 1) {
+            availableBytes = (long) Math.min(maxBytesPerSecond, availableBytes + refill);
+            lastRefill = now;
+        }
+        if (availableBytes <= 0) {
+            return Math.max(1, (-availableBytes + maxBytesPerSecond - 1) / maxBytesPerSecond);
+        }
+        availableBytes -= bytes;
+        return 0;
+    }
+
+    protected long nanoTime() {
+        return System.nanoTime();
+    }
+
+    private void releaseGlobal() {
+        if (maxConcurrent > 0) {
+            concurrent.decrementAndGet();
+        }
+    }
+
+    private void releaseSession(String sessionId) {
+        if (sessionId != null) {
+            concurrentPerSession.computeIfPresent(sessionId, (k, count) -> count <= 1 ? null : count - 1);
+        }
+    }
+
+    private void reject(HttpServletResponse response, int status, long retryAfter) throws IOException {
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(String.format("Rejecting upload with status %d, retry after %d seconds", status, retryAfter));
+        }
+        response.setHeader("Retry-After", String.valueOf(retryAfter));
+        response.sendError(status);
+    }
+
+    private static final class Permit {
+
+        private final String sessionId;
+
+        private Permit(String sessionId) {
+            this.sessionId = sessionId;
+        }
+    }
+}
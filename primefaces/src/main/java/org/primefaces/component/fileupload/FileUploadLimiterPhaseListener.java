@@ -0,0 +1,98 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.component.fileupload;
+
+import java.io.IOException;
+import java.util.Locale;
+import javax.faces.FacesException;
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+import javax.faces.event.PhaseEvent;
+import javax.faces.event.PhaseId;
+import javax.faces.event.PhaseListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Admits multipart requests by the {@link FileUploadLimiter} before the view is restored, i.e. before the request
+ * parameters and thereby the body are parsed, and releases them once the request has been processed.
+ * The admission is recorded in a request attribute, so the request is charged only once, no matter how many
+ * {@link FileUpload} components decode it or whether the {@link org.primefaces.webapp.filter.FileUploadFilter}
+ * already admitted it.
+ */
+public class FileUploadLimiterPhaseListener implements PhaseListener {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public void beforePhase(PhaseEvent event) {
+        if (event.getPhaseId() != PhaseId.RESTORE_VIEW) {
+            return;
+        }
+
+        FacesContext context = event.getFacesContext();
+        ExternalContext externalContext = context.getExternalContext();
+        if (!(externalContext.getRequest() instanceof HttpServletRequest) || !(externalContext.getResponse() instanceof HttpServletResponse)) {
+            return;
+        }
+
+        HttpServletRequest request = (HttpServletRequest) externalContext.getRequest();
+        if (!isMultipart(request)) {
+            return;
+        }
+
+        FileUploadLimiter limiter = FileUploadLimiter.getInstance(request.getServletContext());
+        try {
+            if (limiter.isEnabled() && !limiter.tryAcquire(request, (HttpServletResponse) externalContext.getResponse())) {
+                context.responseComplete();
+            }
+        }
+        catch (IOException e) {
+            throw new FacesException(e);
+        }
+    }
+
+    @Override
+    public void afterPhase(PhaseEvent event) {
+        FacesContext context = event.getFacesContext();
+        if (event.getPhaseId() == PhaseId.RENDER_RESPONSE || context.getResponseComplete()) {
+            Object request = context.getExternalContext().getRequest();
+            if (request instanceof HttpServletRequest && isMultipart((HttpServletRequest) request)) {
+                FileUploadLimiter.getInstance(((HttpServletRequest) request).getServletContext()).release((HttpServletRequest) request);
+            }
+        }
+    }
+
+    @Override
+    public PhaseId getPhaseId() {
+        return PhaseId.ANY_PHASE;
+    }
+
+    protected boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return "POST".equalsIgnoreCase(request.getMethod())
+                && contentType != null
+                && contentType.toLowerCase(Locale.ROOT).startsWith("multipart/");
+    }
+}
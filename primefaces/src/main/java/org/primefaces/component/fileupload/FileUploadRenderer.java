@@ -25,7 +25,10 @@ package org.primefaces.component.fileupload;
 
 import org.primefaces.context.PrimeApplicationContext;
 import org.primefaces.expression.SearchExpressionUtils;
+import org.primefaces.model.file.UploadedFile;
+import org.primefaces.model.file.UploadedFiles;
 import org.primefaces.renderkit.CoreRenderer;
+import org.primefaces.util.FileUploadUtils;
 import org.primefaces.util.HTML;
 import org.primefaces.util.LangUtils;
 import org.primefaces.util.StyleClassBuilder;
@@ -58,6 +61,26 @@ public class FileUploadRenderer extends CoreRenderer {
 
             FileUploadDecoder decoder = applicationContext.getFileUploadDecoder();
             decoder.decode(context, fileUpload);
+
+            if (applicationContext.getConfig().isVirusScanAsync() && isVirusScan(fileUpload)) {
+                startVirusScan(context, fileUpload.getSubmittedValue());
+            }
+        }
+    }
+
+    protected boolean isVirusScan(FileUpload fileUpload) {
+        return fileUpload.isVirusScan() || Arrays.stream(fileUpload.getValidators())
+                .anyMatch(v -> v instanceof FileValidator && Boolean.TRUE.equals(((FileValidator) v).getVirusScan()));
+    }
+
+    protected void startVirusScan(FacesContext context, Object submittedValue) {
+        if (submittedValue instanceof UploadedFile) {
+            FileUploadUtils.startVirusScan(context, (UploadedFile) submittedValue);
+        }
+        else if (submittedValue instanceof UploadedFiles) {
+            for (UploadedFile file : ((UploadedFiles) submittedValue).getFiles()) {
+                FileUploadUtils.startVirusScan(context, file);
+            }
         }
     }
 
@@ -39,7 +39,10 @@ public abstract class GraphicImageBase extends HtmlGraphicImage {
         library,
         stream,
         srcset,
-        sizes
+        sizes,
+        resizeWidth,
+        resizeHeight,
+        resizeQuality
     }
 
     public GraphicImageBase() {
@@ -98,4 +101,28 @@ public abstract class GraphicImageBase extends HtmlGraphicImage {
     public String getSizes() {
         return (String) getStateHelper().eval(PropertyKeys.sizes, null);
     }
+
+    public Integer getResizeWidth() {
+        return (Integer) getStateHelper().eval(PropertyKeys.resizeWidth, null);
+    }
+
+    public void setResizeWidth(Integer resizeWidth) {
+        getStateHelper().put(PropertyKeys.resizeWidth, resizeWidth);
+    }
+
+    public Integer getResizeHeight() {
+        return (Integer) getStateHelper().eval(PropertyKeys.resizeHeight, null);
+    }
+
+    public void setResizeHeight(Integer resizeHeight) {
+        getStateHelper().put(PropertyKeys.resizeHeight, resizeHeight);
+    }
+
+    public Float getResizeQuality() {
+        return (Float) getStateHelper().eval(PropertyKeys.resizeQuality, null);
+    }
+
+    public void setResizeQuality(Float resizeQuality) {
+        getStateHelper().put(PropertyKeys.resizeQuality, resizeQuality);
+    }
 }
\ No newline at end of file
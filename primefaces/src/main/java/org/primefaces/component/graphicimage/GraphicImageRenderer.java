@@ -24,6 +24,8 @@
 package org.primefaces.component.graphicimage;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
 
 import javax.faces.application.Resource;
 import javax.faces.application.ResourceHandler;
@@ -31,7 +33,9 @@ import javax.faces.component.UIComponent;
 import javax.faces.context.FacesContext;
 import javax.faces.context.ResponseWriter;
 
+import org.primefaces.application.resource.ImageResize;
 import org.primefaces.renderkit.CoreRenderer;
+import org.primefaces.util.Constants;
 import org.primefaces.util.DynamicContentSrcBuilder;
 import org.primefaces.util.HTML;
 import org.primefaces.util.Lazy;
@@ -88,7 +92,18 @@ public class GraphicImageRenderer extends CoreRenderer {
         }
         else {
             return DynamicContentSrcBuilder.build(context, image, image.getValueExpression(GraphicImage.PropertyKeys.value.name()),
-                    new Lazy<>(() -> image.getValue()), image.isCache(), image.isStream());
+                    new Lazy<>(() -> image.getValue()), image.isCache(), image.isStream(), getResizeParams(image));
         }
     }
+
+    protected Map<String, String> getResizeParams(GraphicImage image) {
+        Integer width = image.getResizeWidth();
+        Integer height = image.getResizeHeight();
+        if ((width == null || width <= 0) && (height == null || height <= 0)) {
+            return null;
+        }
+
+        ImageResize resize = new ImageResize(width == null ? 0 : width, height == null ? 0 : height, image.getResizeQuality());
+        return Collections.singletonMap(Constants.DYNAMIC_CONTENT_RESIZE_PARAM, resize.toParam());
+    }
 }
@@ -50,7 +50,8 @@ public abstract class ImageCropperBase extends UIInput implements Widget {
         viewMode,
         cache,
         zoomOnTouch,
-        zoomOnWheel
+        zoomOnWheel,
+        maxOutputSize
     }
 
     public ImageCropperBase() {
@@ -190,4 +191,12 @@ public abstract class ImageCropperBase extends UIInput implements Widget {
         getStateHelper().put(PropertyKeys.zoomOnWheel, zoomOnWheel);
     }
 
+    public String getMaxOutputSize() {
+        return (String) getStateHelper().eval(PropertyKeys.maxOutputSize, null);
+    }
+
+    public void setMaxOutputSize(String maxOutputSize) {
+        getStateHelper().put(PropertyKeys.maxOutputSize, maxOutputSize);
+    }
+
 }
\ No newline at end of file
@@ -23,6 +23,7 @@
  */
 package org.primefaces.component.imagecropper;
 
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -31,8 +32,10 @@ import java.io.InputStream;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.file.Files;
+import java.util.Iterator;
 import java.util.Map;
 import javax.el.ValueExpression;
+import javax.faces.FacesException;
 import javax.faces.application.Resource;
 import javax.faces.component.UIComponent;
 import javax.faces.context.ExternalContext;
@@ -40,6 +43,9 @@ import javax.faces.context.FacesContext;
 import javax.faces.context.ResponseWriter;
 import javax.faces.convert.ConverterException;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.input.BoundedInputStream;
@@ -190,20 +196,41 @@ public class ImageCropperRenderer extends CoreRenderer {
             throw new ConverterException(e);
         }
 
-        try (InputStream inputStream = stream.getStream().get()) {
-            BufferedImage outputImage = ImageIO.read(inputStream);
+        try (InputStream inputStream = stream.getStream().get();
+             ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+            if (!readers.hasNext()) {
+                throw new IOException("No ImageReader found for image: " + stream.getName());
+            }
+
+            // decode only the cropped region instead of the whole image, so memory stays proportional to the crop
+            ImageReader reader = readers.next();
+            BufferedImage cropped;
+            try {
+                reader.setInput(imageInputStream, true, true);
+
+                // avoid java.awt.image.RasterFormatException: (x + width) is outside of Raster
+                // see #1208
+                if (x + w > reader.getWidth(0)) {
+                    w = reader.getWidth(0) - x;
+                }
+                if (y + h > reader.getHeight(0)) {
+                    h = reader.getHeight(0) - y;
+                }
 
-            // avoid java.awt.image.RasterFormatException: (x + width) is outside of Raster
-            // see #1208
-            if (x + w > outputImage.getWidth()) {
-                w = outputImage.getWidth() - x;
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle(x, y, w, h));
+                int subsampling = getSubsampling(cropper, w, h);
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                cropped = reader.read(0, param);
             }
-            if (y + h > outputImage.getHeight()) {
-                h = outputImage.getHeight() - y;
+            finally {
+                reader.dispose();
             }
 
             String originalFileName = stream.getName();
-            BufferedImage cropped = outputImage.getSubimage(x, y, w, h);
             ByteArrayOutputStream croppedOutImage = new ByteArrayOutputStream();
             String format = guessImageFormat(stream.getContentType(), originalFileName);
             ImageIO.write(cropped, format, croppedOutImage);
@@ -214,6 +241,40 @@ public class ImageCropperRenderer extends CoreRenderer {
         }
     }
 
+    /**
+     * Calculates the subsampling, so the cropped image does not exceed the <code>maxOutputSize</code> of the cropper.
+     */
+    protected int getSubsampling(ImageCropper cropper, int w, int h) {
+        String maxOutputSize = cropper.getMaxOutputSize();
+        if (isValueBlank(maxOutputSize)) {
+            return 1;
+        }
+
+        String[] size = maxOutputSize.split(",");
+        if (size.length > 2) {
+            throw createInvalidMaxOutputSizeException(cropper);
+        }
+        int maxWidth = parseMaxOutputSize(cropper, size[0]);
+        int maxHeight = size.length > 1 ? parseMaxOutputSize(cropper, size[1]) : maxWidth;
+        int subsamplingX = maxWidth > 0 ? (w + maxWidth - 1) / maxWidth : 1;
+        int subsamplingY = maxHeight > 0 ? (h + maxHeight - 1) / maxHeight : 1;
+        return Math.max(1, Math.max(subsamplingX, subsamplingY));
+    }
+
+    private int parseMaxOutputSize(ImageCropper cropper, String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException e) {
+            throw createInvalidMaxOutputSizeException(cropper);
+        }
+    }
+
+    private FacesException createInvalidMaxOutputSizeException(ImageCropper cropper) {
+        return new FacesException("Invalid maxOutputSize \"" + cropper.getMaxOutputSize() + "\" of ImageCropper " + cropper.getClientId()
+                + ", expected width,height in pixels");
+    }
+
     /**
      * Attempt to obtain the image format used to write the image from the contentType or the image's file extension.
      */
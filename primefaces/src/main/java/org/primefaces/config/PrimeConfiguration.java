@@ -25,11 +25,14 @@ package org.primefaces.config;
 
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import javax.faces.component.UIInput;
 import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
 import javax.servlet.ServletContext;
 
+import org.primefaces.cache.DefaultCacheProvider;
+import org.primefaces.multiviewstate.CacheMultiViewStateStore;
 import org.primefaces.util.Constants;
 import org.primefaces.util.LangUtils;
 
@@ -62,7 +65,23 @@ public class PrimeConfiguration {
     private String cspReportOnlyPolicy;
     private String[] exceptionTypesToIgnoreInLogging;
     private final String multiViewStateStore;
+    private final int multiViewStateCacheMaxSize;
     private final boolean markInputAsInvalidOnErrorMsg;
+    private final boolean dynamicContentStateless;
+    private final String dynamicContentSecret;
+    private final boolean resourceCompressionEnabled;
+    private final boolean resourceBundlingEnabled;
+    private final boolean preloadResources;
+    private final boolean earlyHints;
+    private final boolean cacheFragmentsAsBytes;
+    private final boolean cacheFragmentsDeflated;
+    private final boolean virusScanAsync;
+    private final int virusScanCacheSize;
+    private final long uploadChunksMaxAge;
+    private final long uploadChunksMaxDiskUsage;
+    private final String exporterExecutor;
+    private final int cacheProviderMaxSize;
+    private final long exporterParallelTimeout;
 
     // internal config
     private final boolean stringConverterAvailable;
@@ -172,9 +191,76 @@ public class PrimeConfiguration {
 
         multiViewStateStore = externalContext.getInitParameter(Constants.ContextParams.MULTI_VIEW_STATE_STORE);
 
+        value = externalContext.getInitParameter(Constants.ContextParams.MULTI_VIEW_STATE_CACHE_MAX_SIZE);
+        multiViewStateCacheMaxSize = LangUtils.isBlank(value) ? CacheMultiViewStateStore.DEFAULT_MAX_SIZE : Integer.parseInt(value);
+
         value = externalContext.getInitParameter(Constants.ContextParams.MARK_INPUT_AS_INVALID_ON_ERROR_MSG);
         markInputAsInvalidOnErrorMsg = Boolean.parseBoolean(value);
 
+        value = externalContext.getInitParameter(Constants.ContextParams.DYNAMIC_CONTENT_STATELESS);
+        dynamicContentStateless = Boolean.parseBoolean(value);
+
+        dynamicContentSecret = externalContext.getInitParameter(Constants.ContextParams.DYNAMIC_CONTENT_SECRET);
+
+        value = externalContext.getInitParameter(Constants.ContextParams.RESOURCE_COMPRESSION);
+        resourceCompressionEnabled = Boolean.parseBoolean(value);
+
+        value = externalContext.getInitParameter(Constants.ContextParams.RESOURCE_BUNDLING);
+        resourceBundlingEnabled = Boolean.parseBoolean(value);
+
+        value = Objects.toString(externalContext.getInitParameter(Constants.ContextParams.PRELOAD_RESOURCES));
+        switch (value) {
+            case "true":
+                preloadResources = Boolean.TRUE;
+                earlyHints = Boolean.FALSE;
+                break;
+            case "early-hints":
+                preloadResources = Boolean.TRUE;
+                earlyHints = Boolean.TRUE;
+                break;
+            default:
+                preloadResources = Boolean.FALSE;
+                earlyHints = Boolean.FALSE;
+                break;
+        }
+
+        value = Objects.toString(externalContext.getInitParameter(Constants.ContextParams.CACHE_FRAGMENT_STORAGE));
+        switch (value) {
+            case "bytes":
+                cacheFragmentsAsBytes = Boolean.TRUE;
+                cacheFragmentsDeflated = Boolean.FALSE;
+                break;
+            case "deflate":
+                cacheFragmentsAsBytes = Boolean.TRUE;
+                cacheFragmentsDeflated = Boolean.TRUE;
+                break;
+            default:
+                cacheFragmentsAsBytes = Boolean.FALSE;
+                cacheFragmentsDeflated = Boolean.FALSE;
+                break;
+        }
+
+        value = externalContext.getInitParameter(Constants.ContextParams.VIRUS_SCAN_ASYNC);
+        virusScanAsync = Boolean.parseBoolean(value);
+
+        value = externalContext.getInitParameter(Constants.ContextParams.VIRUS_SCAN_CACHE_SIZE);
+        virusScanCacheSize = LangUtils.isBlank(value) ? 0 : Integer.parseInt(value);
+
+        value = externalContext.getInitParameter(Constants.ContextParams.UPLOAD_CHUNKS_MAX_AGE);
+        uploadChunksMaxAge = TimeUnit.SECONDS.toMillis(LangUtils.isBlank(value) ? TimeUnit.DAYS.toSeconds(1) : Long.parseLong(value));
+
+        value = externalContext.getInitParameter(Constants.ContextParams.UPLOAD_CHUNKS_MAX_DISK_USAGE);
+        uploadChunksMaxDiskUsage = LangUtils.isBlank(value) ? 0 : Long.parseLong(value);
+
+        value = externalContext.getInitParameter(Constants.ContextParams.CACHE_PROVIDER_MAX_SIZE);
+        cacheProviderMaxSize = LangUtils.isBlank(value) ? DefaultCacheProvider.DEFAULT_MAX_SIZE : Integer.parseInt(value);
+
+        value = externalContext.getInitParameter(Constants.ContextParams.EXPORTER_EXECUTOR);
+        exporterExecutor = (value == null) ? "java:comp/DefaultManagedExecutorService" : value;
+
+        value = externalContext.getInitParameter(Constants.ContextParams.EXPORTER_PARALLEL_TIMEOUT);
+        exporterParallelTimeout = TimeUnit.SECONDS.toMillis(LangUtils.isBlank(value) ? TimeUnit.MINUTES.toSeconds(5) : Long.parseLong(value));
+
         if (environment.isAtLeastJsf40()) {
             value = externalContext.getInitParameter(Constants.ContextParams.COOKIES_SAME_SITE);
             cookiesSameSite = (value == null) ? "Strict" : value;
@@ -316,10 +402,74 @@ public class PrimeConfiguration {
         return multiViewStateStore;
     }
 
+    public int getMultiViewStateCacheMaxSize() {
+        return multiViewStateCacheMaxSize;
+    }
+
     public boolean isMarkInputAsInvalidOnErrorMsg() {
         return markInputAsInvalidOnErrorMsg;
     }
 
+    public boolean isDynamicContentStateless() {
+        return dynamicContentStateless;
+    }
+
+    public String getDynamicContentSecret() {
+        return dynamicContentSecret;
+    }
+
+    public boolean isResourceCompressionEnabled() {
+        return resourceCompressionEnabled;
+    }
+
+    public boolean isResourceBundlingEnabled() {
+        return resourceBundlingEnabled;
+    }
+
+    public boolean isPreloadResources() {
+        return preloadResources;
+    }
+
+    public boolean isEarlyHints() {
+        return earlyHints;
+    }
+
+    public boolean isCacheFragmentsAsBytes() {
+        return cacheFragmentsAsBytes;
+    }
+
+    public boolean isCacheFragmentsDeflated() {
+        return cacheFragmentsDeflated;
+    }
+
+    public boolean isVirusScanAsync() {
+        return virusScanAsync;
+    }
+
+    public int getVirusScanCacheSize() {
+        return virusScanCacheSize;
+    }
+
+    public long getUploadChunksMaxAge() {
+        return uploadChunksMaxAge;
+    }
+
+    public long getUploadChunksMaxDiskUsage() {
+        return uploadChunksMaxDiskUsage;
+    }
+
+    public int getCacheProviderMaxSize() {
+        return cacheProviderMaxSize;
+    }
+
+    public String getExporterExecutor() {
+        return exporterExecutor;
+    }
+
+    public long getExporterParallelTimeout() {
+        return exporterParallelTimeout;
+    }
+
     public boolean isCookiesSecure() {
         return cookiesSecure;
     }
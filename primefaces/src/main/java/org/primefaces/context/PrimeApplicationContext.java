@@ -29,11 +29,15 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.spi.FileTypeDetector;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -41,6 +45,8 @@ import java.util.stream.Stream;
 import javax.faces.FacesException;
 import javax.faces.component.UIComponent;
 import javax.faces.context.FacesContext;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletRegistration;
 import javax.servlet.http.HttpServletRequest;
@@ -53,12 +59,16 @@ import org.primefaces.cache.DefaultCacheProvider;
 import org.primefaces.component.datatable.DataTable;
 import org.primefaces.component.datatable.export.*;
 import org.primefaces.component.export.Exporter;
+import org.primefaces.component.fileupload.FileUploadChunkSweeper;
 import org.primefaces.component.fileupload.FileUploadDecoder;
 import org.primefaces.component.treetable.TreeTable;
 import org.primefaces.component.treetable.export.*;
 import org.primefaces.config.PrimeConfiguration;
 import org.primefaces.config.PrimeEnvironment;
 import org.primefaces.metadata.transformer.MetadataTransformer;
+import org.primefaces.multiviewstate.CacheMultiViewStateStore;
+import org.primefaces.multiviewstate.MultiViewStateStore;
+import org.primefaces.multiviewstate.SessionMultiViewStateStore;
 import org.primefaces.util.*;
 import org.primefaces.validate.bean.ClientValidationConstraint;
 import org.primefaces.virusscan.VirusScannerService;
@@ -78,6 +88,8 @@ public class PrimeApplicationContext {
 
     private static final Logger LOGGER = Logger.getLogger(PrimeApplicationContext.class.getName());
 
+    private static final int COMPRESSED_RESOURCES_MAX_SIZE = 1000;
+
     private final PrimeEnvironment environment;
     private final PrimeConfiguration config;
     private final ClassLoader applicationClassLoader;
@@ -85,12 +97,19 @@ public class PrimeApplicationContext {
     private final Map<Class<?>, Map<String, Object>> constantsCacheMap;
     private final Map<Class<? extends UIComponent>, Map<String, Class<? extends Exporter<?>>>> exporters;
     private final Map<String, ClientValidationConstraint> beanValidationClientConstraintMapping;
+    private final Map<String, byte[]> compressedResources;
+    private final Map<String, Map<String, String>> preloadResources;
     private final List<MetadataTransformer> metadataTransformers;
 
     private final Lazy<ValidatorFactory> validatorFactory;
     private final Lazy<Validator> validator;
     private final Lazy<CacheProvider> cacheProvider;
+    private final Lazy<MultiViewStateStore> multiViewStateStore;
     private final Lazy<VirusScannerService> virusScannerService;
+    private final Lazy<FileUploadChunkSweeper> fileUploadChunkSweeper;
+    private final Lazy<StringEncrypter> dynamicContentEncrypter;
+    private final Lazy<ExecutorService> exporterExecutor;
+    private volatile boolean exporterExecutorOwned;
     private FileTypeDetector fileTypeDetector;
     private FileUploadDecoder fileUploadDecoder;
     private String fileUploadResumeUrl;
@@ -104,6 +123,9 @@ public class PrimeApplicationContext {
         constantsCacheMap = new ConcurrentHashMap<>();
         exporters = new ConcurrentHashMap<>();
         beanValidationClientConstraintMapping = new ConcurrentHashMap<>();
+        // bounded, as the bundles of PrimeFaces resources are requested by arbitrary combinations of resources
+        compressedResources = Collections.synchronizedMap(new LimitedSizeHashMap<>(COMPRESSED_RESOURCES_MAX_SIZE));
+        preloadResources = new ConcurrentHashMap<>();
         metadataTransformers = new CopyOnWriteArrayList<>();
 
         ClassLoader classLoader = null;
@@ -144,13 +166,14 @@ public class PrimeApplicationContext {
             validator = null;
         }
 
-        virusScannerService = new Lazy<>(() -> new VirusScannerService(applicationClassLoader));
+        virusScannerService = new Lazy<>(() -> new VirusScannerService(applicationClassLoader, config.getVirusScanCacheSize()));
+        fileUploadChunkSweeper = new Lazy<>(() -> new FileUploadChunkSweeper(config.getUploadChunksMaxAge(), config.getUploadChunksMaxDiskUsage()));
 
         cacheProvider = new Lazy<>(() -> {
             String cacheProviderConfigValue = FacesContext.getCurrentInstance().getExternalContext()
                     .getInitParameter(Constants.ContextParams.CACHE_PROVIDER);
             if (cacheProviderConfigValue == null) {
-                return new DefaultCacheProvider();
+                return new DefaultCacheProvider(config.getCacheProviderMaxSize(), 0);
             }
             else {
                 try {
@@ -163,6 +186,40 @@ public class PrimeApplicationContext {
             }
         });
 
+        multiViewStateStore = new Lazy<>(() -> {
+            String store = config.getMultiViewStateStore();
+            if (LangUtils.isBlank(store) || "session".equals(store)) {
+                return new SessionMultiViewStateStore(false);
+            }
+            else if ("client-window".equals(store)) {
+                return new SessionMultiViewStateStore(true);
+            }
+            else if ("cache".equals(store)) {
+                return new CacheMultiViewStateStore(this::getCacheProvider, config.getMultiViewStateCacheMaxSize());
+            }
+            else {
+                try {
+                    Class<? extends MultiViewStateStore> storeClazz = LangUtils.loadClassForName(store);
+                    return storeClazz.getConstructor().newInstance();
+                }
+                catch (ReflectiveOperationException | IllegalArgumentException ex) {
+                    throw new FacesException(ex);
+                }
+            }
+        });
+
+        dynamicContentEncrypter = new Lazy<>(() -> {
+            String secret = config.getDynamicContentSecret();
+            if (LangUtils.isBlank(secret)) {
+                LOGGER.warning(Constants.ContextParams.DYNAMIC_CONTENT_SECRET + " is not set, a random key will be used. "
+                        + "Dynamic content URLs will not be valid after a restart or on other cluster nodes.");
+                return StringEncrypter.withRandomKey();
+            }
+            return new StringEncrypter(secret);
+        });
+
+        exporterExecutor = new Lazy<>(this::resolveExporterExecutor);
+
         resolveFileUploadDecoder();
 
         resolveFileUploadResumeUrl(facesContext);
@@ -194,6 +251,26 @@ public class PrimeApplicationContext {
                         .build());
     }
 
+    private ExecutorService resolveExporterExecutor() {
+        String jndiName = config.getExporterExecutor();
+        if (LangUtils.isNotBlank(jndiName)) {
+            try {
+                return (ExecutorService) new InitialContext().lookup(jndiName);
+            }
+            catch (NamingException | ClassCastException e) {
+                LOGGER.log(Level.FINE, e, () -> "Could not lookup ExecutorService '" + jndiName + "', using an own thread pool for exports");
+            }
+        }
+
+        exporterExecutorOwned = true;
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread thread = new Thread(r, "primefaces-exporter-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     private void resolveFileTypeDetector() {
         // collect all first to avoid concurrency issues #8797
         List<FileTypeDetector> detectors = ServiceLoader.load(FileTypeDetector.class, applicationClassLoader).stream()
@@ -309,6 +386,10 @@ public class PrimeApplicationContext {
         return cacheProvider.get();
     }
 
+    public MultiViewStateStore getMultiViewStateStore() {
+        return multiViewStateStore.get();
+    }
+
     public Map<Class<?>, Map<String, Object>> getEnumCacheMap() {
         return enumCacheMap;
     }
@@ -325,6 +406,21 @@ public class PrimeApplicationContext {
         return virusScannerService.get();
     }
 
+    public StringEncrypter getDynamicContentEncrypter() {
+        return dynamicContentEncrypter.get();
+    }
+
+    /**
+     * Gets the {@link ExecutorService} running the queries of parallel exports.
+     * This is the container managed executor configured by {@link Constants.ContextParams#EXPORTER_EXECUTOR}
+     * or, if it is not available, a thread pool owned by this application context.
+     *
+     * @return the executor
+     */
+    public ExecutorService getExporterExecutor() {
+        return exporterExecutor.get();
+    }
+
     public FileTypeDetector getFileTypeDetector() {
         return fileTypeDetector;
     }
@@ -335,6 +431,19 @@ public class PrimeApplicationContext {
                 validatorFactory.get().close();
             }
         }
+        if (virusScannerService.isInitialized()) {
+            virusScannerService.get().shutdown();
+        }
+        if (fileUploadChunkSweeper.isInitialized()) {
+            fileUploadChunkSweeper.get().shutdown();
+        }
+        if (exporterExecutor.isInitialized() && exporterExecutorOwned) {
+            exporterExecutor.get().shutdownNow();
+        }
+    }
+
+    public FileUploadChunkSweeper getFileUploadChunkSweeper() {
+        return fileUploadChunkSweeper.get();
     }
 
     public FileUploadDecoder getFileUploadDecoder() {
@@ -353,6 +462,14 @@ public class PrimeApplicationContext {
         return beanValidationClientConstraintMapping;
     }
 
+    public Map<String, byte[]> getCompressedResources() {
+        return compressedResources;
+    }
+
+    public Map<String, Map<String, String>> getPreloadResources() {
+        return preloadResources;
+    }
+
     public List<MetadataTransformer> getMetadataTransformers() {
         return metadataTransformers;
     }
@@ -23,9 +23,18 @@
  */
 package org.primefaces.model;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -46,6 +55,10 @@ public class DefaultStreamedContent implements StreamedContent, Serializable {
     private String contentEncoding;
     private Long contentLength;
     private SerializableConsumer<OutputStream> writer;
+    private SerializableSupplier<SeekableByteChannel> channel;
+    private String eTag;
+    private Long lastModified;
+    private String path;
 
     public DefaultStreamedContent() {
         // NOOP
@@ -53,6 +66,9 @@ public class DefaultStreamedContent implements StreamedContent, Serializable {
 
     @Override
     public Supplier<InputStream> getStream() {
+        if (stream == null && channel != null) {
+            return () -> Channels.newInputStream(channel.get());
+        }
         return stream;
     }
 
@@ -81,6 +97,26 @@ public class DefaultStreamedContent implements StreamedContent, Serializable {
         return writer;
     }
 
+    @Override
+    public Supplier<SeekableByteChannel> getChannel() {
+        return channel;
+    }
+
+    @Override
+    public String getETag() {
+        return eTag;
+    }
+
+    @Override
+    public Long getLastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public Path getPath() {
+        return path == null ? null : Paths.get(path);
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -123,9 +159,57 @@ public class DefaultStreamedContent implements StreamedContent, Serializable {
             return this;
         }
 
+        public Builder channel(SerializableSupplier<SeekableByteChannel> channel) {
+            streamedContent.channel = channel;
+            return this;
+        }
+
+        /**
+         * Streams the given file. The content length and last modification are taken from the file,
+         * if not set explicitly, and the file is served as {@link FileChannel}.
+         *
+         * @param path the file
+         * @return the {@link Builder}
+         */
+        public Builder path(Path path) {
+            String file = path.toAbsolutePath().toString();
+            streamedContent.path = file;
+            streamedContent.channel = () -> {
+                try {
+                    return FileChannel.open(Paths.get(file), StandardOpenOption.READ);
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+
+            try {
+                if (streamedContent.contentLength == null) {
+                    streamedContent.contentLength = Files.size(path);
+                }
+                if (streamedContent.lastModified == null) {
+                    streamedContent.lastModified = Files.getLastModifiedTime(path).toMillis();
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        public Builder eTag(String eTag) {
+            streamedContent.eTag = eTag;
+            return this;
+        }
+
+        public Builder lastModified(Long lastModified) {
+            streamedContent.lastModified = lastModified;
+            return this;
+        }
+
         public DefaultStreamedContent build() {
-            if (streamedContent.writer == null && streamedContent.stream == null) {
-                throw new FacesException("Either provide a 'stream' or 'writer'!");
+            if (streamedContent.writer == null && streamedContent.stream == null && streamedContent.channel == null) {
+                throw new FacesException("Either provide a 'stream', 'channel' or 'writer'!");
             }
 
             return streamedContent;
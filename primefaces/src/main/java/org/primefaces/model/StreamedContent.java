@@ -25,6 +25,8 @@ package org.primefaces.model;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -52,4 +54,45 @@ public interface StreamedContent {
      * @return The {@link Consumer}
      */
     Consumer<OutputStream> getWriter();
+
+    /**
+     * {@link SeekableByteChannel} which allows to serve only parts of the content (HTTP range requests),
+     * e.g. to seek in audio or video files without downloading the whole file.
+     * Takes precedence over {@link #getStream()} when streaming dynamic content.
+     *
+     * @return the {@link SeekableByteChannel} or <code>null</code> if the content is not seekable
+     */
+    default Supplier<SeekableByteChannel> getChannel() {
+        return null;
+    }
+
+    /**
+     * Entity tag of the content, used as validator for conditional requests (<code>If-None-Match</code>).
+     * Should change whenever the content changes, e.g. a hash or version of the content.
+     *
+     * @return the entity tag or <code>null</code>
+     */
+    default String getETag() {
+        return null;
+    }
+
+    /**
+     * Last modification of the content in milliseconds since the epoch, used as validator for conditional requests
+     * (<code>If-Modified-Since</code>).
+     *
+     * @return the last modification or <code>null</code>
+     */
+    default Long getLastModified() {
+        return null;
+    }
+
+    /**
+     * The file backing this content, if any. Allows the container to send the file without copying it through the
+     * JVM (e.g. Tomcat sendfile).
+     *
+     * @return the {@link Path} or <code>null</code> if the content is not backed by a file
+     */
+    default Path getPath() {
+        return null;
+    }
 }
@@ -37,6 +37,7 @@ public abstract class AbstractUploadedFile<T> implements UploadedFile, Serializa
 
     private String filename;
     private byte[] cachedContent;
+    private String sha256;
     private Long sizeLimit;
     private String webKitRelativePath;
     private transient T source;
@@ -89,6 +90,19 @@ public abstract class AbstractUploadedFile<T> implements UploadedFile, Serializa
         return cachedContent;
     }
 
+    @Override
+    public String getSha256() {
+        if (sha256 == null) {
+            if (cachedContent != null) {
+                sha256 = FileUploadUtils.sha256Hex(cachedContent);
+            }
+            else {
+                sha256 = UploadedFile.super.getSha256();
+            }
+        }
+        return sha256;
+    }
+
     @Override
     public void write(String filePath) throws Exception {
         File file = new File(filePath, filename);
@@ -25,6 +25,9 @@ package org.primefaces.model.file;
 
 import java.io.IOException;
 import java.io.InputStream;
+import javax.faces.FacesException;
+
+import org.primefaces.util.FileUploadUtils;
 
 public interface UploadedFile {
 
@@ -43,4 +46,18 @@ public interface UploadedFile {
     void write(String filePath) throws Exception;
 
     void delete() throws IOException;
+
+    /**
+     * Returns the SHA-256 digest of the content as lowercase hex string, e.g. to detect duplicate uploads.
+     *
+     * @return the SHA-256 digest
+     */
+    default String getSha256() {
+        try (InputStream is = getInputStream()) {
+            return FileUploadUtils.sha256Hex(is);
+        }
+        catch (IOException ex) {
+            throw new FacesException(ex);
+        }
+    }
 }
@@ -101,6 +101,11 @@ public class UploadedFileWrapper implements UploadedFile, FacesWrapper<UploadedF
         return getWrapped().getContent();
     }
 
+    @Override
+    public String getSha256() {
+        return getWrapped().getSha256();
+    }
+
     @Override
     public String getContentType() {
         return getWrapped().getContentType();
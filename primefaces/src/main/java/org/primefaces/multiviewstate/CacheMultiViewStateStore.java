@@ -0,0 +1,249 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.multiviewstate;
+
+import org.primefaces.cache.CacheProvider;
+import org.primefaces.cache.DefaultCacheProvider;
+import org.primefaces.util.LangUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+
+/**
+ * Keeps the multiViewState outside of the session in a {@link CacheProvider}, keyed by the session id.
+ * The states are read once per request into a request scoped working copy and written back in a compact, deflated
+ * form at the end of the request - but only if they have changed - so the session (and its replication) doesn't
+ * grow with every table interaction.
+ * <p>
+ * Only the states changed or removed by a request are written back, merged into the states stored meanwhile by
+ * concurrent requests of the same session. The states are kept in the dedicated {@value #REGION} region; with the
+ * {@link DefaultCacheProvider} it holds up to <code>maxSize</code> sessions, other providers must size this region so
+ * it fits all active sessions, otherwise the states of the least recently used sessions are lost.
+ */
+public class CacheMultiViewStateStore implements MultiViewStateStore {
+
+    public static final String REGION = "primefaces.multiViewState";
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    private static final Logger LOGGER = Logger.getLogger(CacheMultiViewStateStore.class.getName());
+    private static final String REQUEST_KEY = CacheMultiViewStateStore.class.getName() + ".STATES";
+
+    private final Supplier<CacheProvider> cacheProvider;
+    private final int maxSize;
+    private volatile boolean regionConfigured;
+
+    public CacheMultiViewStateStore(Supplier<CacheProvider> cacheProvider) {
+        this(cacheProvider, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param cacheProvider the provider to store the states in
+     * @param maxSize the maximum number of sessions in the {@value #REGION} region of a {@link DefaultCacheProvider}
+     */
+    public CacheMultiViewStateStore(Supplier<CacheProvider> cacheProvider, int maxSize) {
+        this.cacheProvider = cacheProvider;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public Map<MultiViewStateKey, Object> getStates(FacesContext context, boolean create) {
+        Map<String, Object> requestMap = context.getExternalContext().getRequestMap();
+        WorkingCopy workingCopy = (WorkingCopy) requestMap.get(REQUEST_KEY);
+        if (workingCopy == null) {
+            String sessionId = context.getExternalContext().getSessionId(create);
+            if (LangUtils.isBlank(sessionId)) {
+                return Collections.emptyMap();
+            }
+
+            byte[] stored = (byte[]) getCacheProvider().get(REGION, sessionId);
+            if (stored == null && !create) {
+                return Collections.emptyMap();
+            }
+
+            workingCopy = new WorkingCopy(sessionId, stored == null ? Collections.emptyMap() : deserialize(stored));
+            requestMap.put(REQUEST_KEY, workingCopy);
+        }
+        return workingCopy.states;
+    }
+
+    @Override
+    public void clear(FacesContext context) {
+        context.getExternalContext().getRequestMap().remove(REQUEST_KEY);
+        String sessionId = context.getExternalContext().getSessionId(false);
+        if (LangUtils.isNotBlank(sessionId)) {
+            getCacheProvider().remove(REGION, sessionId);
+        }
+    }
+
+    @Override
+    public void flush(FacesContext context) {
+        ExternalContext externalContext = context.getExternalContext();
+        WorkingCopy workingCopy = (WorkingCopy) externalContext.getRequestMap().remove(REQUEST_KEY);
+        if (workingCopy == null) {
+            return;
+        }
+
+        Map<MultiViewStateKey, byte[]> changed = new HashMap<>();
+        for (Map.Entry<MultiViewStateKey, Object> entry : workingCopy.states.entrySet()) {
+            byte[] serialized = serializeState(entry.getValue());
+            if (!Arrays.equals(serialized, workingCopy.stored.get(entry.getKey()))) {
+                changed.put(entry.getKey(), serialized);
+            }
+        }
+        Set<MultiViewStateKey> removed = new HashSet<>(workingCopy.stored.keySet());
+        removed.removeAll(workingCopy.states.keySet());
+        if (changed.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+
+        // merge into the states stored meanwhile by concurrent requests of the same session, instead of overwriting them
+        CacheProvider provider = getCacheProvider();
+        byte[] current = (byte[]) provider.get(REGION, workingCopy.sessionId);
+        Map<MultiViewStateKey, byte[]> merged = current == null ? new LinkedHashMap<>(workingCopy.stored) : deserialize(current);
+        merged.putAll(changed);
+        merged.keySet().removeAll(removed);
+
+        if (merged.isEmpty()) {
+            provider.remove(REGION, workingCopy.sessionId);
+        }
+        else {
+            // let the states expire together with the session
+            long timeToLive = Math.max(0, externalContext.getSessionMaxInactiveInterval()) * 1000L;
+            provider.put(REGION, workingCopy.sessionId, serialize(merged), timeToLive);
+        }
+    }
+
+    protected CacheProvider getCacheProvider() {
+        CacheProvider provider = cacheProvider.get();
+        if (!regionConfigured) {
+            if (provider instanceof DefaultCacheProvider) {
+                ((DefaultCacheProvider) provider).setMaxSize(REGION, maxSize);
+            }
+            regionConfigured = true;
+        }
+        return provider;
+    }
+
+    /**
+     * Serializes the states without the overhead of the map and key classes:
+     * the number of states followed by viewId, clientId and serialized state of each entry, deflated.
+     *
+     * @param states the serialized states, see {@link #serializeState(Object)}
+     * @return the serialized states
+     */
+    static byte[] serialize(Map<MultiViewStateKey, byte[]> states) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeInt(states.size());
+            for (Map.Entry<MultiViewStateKey, byte[]> entry : states.entrySet()) {
+                out.writeUTF(entry.getKey().getViewId());
+                out.writeUTF(entry.getKey().getClientId());
+                out.writeInt(entry.getValue().length);
+                out.write(entry.getValue());
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Map<MultiViewStateKey, byte[]> deserialize(byte[] serialized) {
+        Map<MultiViewStateKey, byte[]> states = new LinkedHashMap<>();
+        try (ObjectInputStream in = new ObjectInputStream(new InflaterInputStream(new ByteArrayInputStream(serialized)))) {
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                MultiViewStateKey key = MultiViewStateKey.of(in.readUTF(), in.readUTF());
+                byte[] state = new byte[in.readInt()];
+                in.readFully(state);
+                states.put(key, state);
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            // start over instead of breaking the view
+            LOGGER.log(Level.WARNING, "Could not restore multiViewState, it will be discarded", e);
+            states.clear();
+        }
+        return states;
+    }
+
+    static byte[] serializeState(Object state) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(state);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Object deserializeState(byte[] serialized) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+
+    private static final class WorkingCopy {
+
+        private final String sessionId;
+        private final Map<MultiViewStateKey, byte[]> stored;
+        private final Map<MultiViewStateKey, Object> states;
+
+        private WorkingCopy(String sessionId, Map<MultiViewStateKey, byte[]> stored) {
+            this.sessionId = sessionId;
+            this.stored = stored;
+            this.states = new ConcurrentHashMap<>();
+            for (Map.Entry<MultiViewStateKey, byte[]> entry : stored.entrySet()) {
+                try {
+                    states.put(entry.getKey(), deserializeState(entry.getValue()));
+                }
+                catch (IOException | ClassNotFoundException e) {
+                    // e.g. after a redeployment with incompatible state classes
+                    LOGGER.log(Level.WARNING, e, () -> "Could not restore multiViewState of " + entry.getKey() + ", it will be discarded");
+                }
+            }
+        }
+    }
+}
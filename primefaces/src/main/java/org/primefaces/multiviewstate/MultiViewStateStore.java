@@ -0,0 +1,66 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.multiviewstate;
+
+import java.util.Map;
+
+import javax.faces.context.FacesContext;
+
+/**
+ * Stores the multiViewState of the current user.
+ * Configured via the <code>primefaces.MULTI_VIEW_STATE_STORE</code> context parameter,
+ * either with one of the builtin names (<code>session</code>, <code>client-window</code>, <code>cache</code>)
+ * or with the fully qualified name of a custom implementation.
+ * Implementations must be thread-safe and provide a public no-arg constructor.
+ */
+public interface MultiViewStateStore {
+
+    /**
+     * Gets the states of the current user. The returned map is modified in place by the caller
+     * and the states inside are mutated by the components.
+     *
+     * @param context the {@link FacesContext}
+     * @param create if the map should be created if it does not exist yet
+     * @return the states or an empty, unmodifiable map if none exist and <code>create</code> is false
+     */
+    Map<MultiViewStateKey, Object> getStates(FacesContext context, boolean create);
+
+    /**
+     * Removes all states of the current user.
+     *
+     * @param context the {@link FacesContext}
+     */
+    void clear(FacesContext context);
+
+    /**
+     * Persists the states obtained during the current request.
+     * Called once at the end of the request, after the response has been rendered or completed.
+     * Stores which keep the states in the session don't need to do anything.
+     *
+     * @param context the {@link FacesContext}
+     */
+    default void flush(FacesContext context) {
+        // NOOP
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.multiviewstate;
+
+import org.primefaces.util.Constants;
+import org.primefaces.util.LangUtils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.faces.context.FacesContext;
+import javax.faces.lifecycle.ClientWindow;
+
+/**
+ * Keeps the multiViewState in the session, either per session or per {@link ClientWindow}.
+ */
+public class SessionMultiViewStateStore implements MultiViewStateStore {
+
+    private static final String SESSION = "session";
+
+    private final boolean perClientWindow;
+
+    public SessionMultiViewStateStore() {
+        this(false);
+    }
+
+    public SessionMultiViewStateStore(boolean perClientWindow) {
+        this.perClientWindow = perClientWindow;
+    }
+
+    @Override
+    public Map<MultiViewStateKey, Object> getStates(FacesContext context, boolean create) {
+        Map<String, Object> sessionMap = context.getExternalContext().getSessionMap();
+
+        String clientWindowId = SESSION;
+        if (perClientWindow) {
+            ClientWindow clientWindow = context.getExternalContext().getClientWindow();
+            if (clientWindow != null && LangUtils.isNotBlank(clientWindow.getId())) {
+                clientWindowId = clientWindow.getId();
+            }
+        }
+
+        Map<String, Map<MultiViewStateKey, Object>> clientWindowMap =
+                (Map<String, Map<MultiViewStateKey, Object>>) sessionMap.get(Constants.MULTI_VIEW_STATES);
+        if (clientWindowMap == null) {
+            if (!create) {
+                return Collections.emptyMap();
+            }
+            clientWindowMap = new ConcurrentHashMap<>();
+            sessionMap.put(Constants.MULTI_VIEW_STATES, clientWindowMap);
+        }
+
+        Map<MultiViewStateKey, Object> states = clientWindowMap.get(clientWindowId);
+        if (states == null) {
+            if (!create) {
+                return Collections.emptyMap();
+            }
+            states = new ConcurrentHashMap<>();
+            clientWindowMap.put(clientWindowId, states);
+        }
+
+        return states;
+    }
+
+    @Override
+    public void clear(FacesContext context) {
+        context.getExternalContext().getSessionMap().remove(Constants.MULTI_VIEW_STATES);
+    }
+
+    public boolean isPerClientWindow() {
+        return perClientWindow;
+    }
+}
@@ -24,8 +24,12 @@
 package org.primefaces.renderkit;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -35,6 +39,7 @@ import javax.el.ValueExpression;
 import javax.faces.FacesException;
 import javax.faces.application.ProjectStage;
 import javax.faces.application.Resource;
+import javax.faces.application.ResourceHandler;
 import javax.faces.component.UIComponent;
 import javax.faces.component.UIViewRoot;
 import javax.faces.context.ExternalContext;
@@ -45,6 +50,8 @@ import javax.faces.render.Renderer;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletResponse;
 
+import org.primefaces.application.ResourcePreloadPhaseListener;
+import org.primefaces.application.resource.BundledResource;
 import org.primefaces.clientwindow.PrimeClientWindow;
 import org.primefaces.clientwindow.PrimeClientWindowUtils;
 import org.primefaces.context.PrimeApplicationContext;
@@ -70,6 +77,7 @@ public class HeadRenderer extends Renderer {
 
     private static final Logger LOGGER = Logger.getLogger(HeadRenderer.class.getName());
     private static final String LIBRARY = "primefaces";
+    private static final String PRELOADS_KEY = HeadRenderer.class.getName() + ".PRELOADS";
 
     @Override
     public void encodeBegin(FacesContext context, UIComponent component) throws IOException {
@@ -119,9 +127,31 @@ public class HeadRenderer extends Renderer {
         //Registered Resources
         UIViewRoot viewRoot = context.getViewRoot();
         List<UIComponent> resources = viewRoot.getComponentResources(context, "head");
-        for (int i = 0; i < resources.size(); i++) {
-            UIComponent resource = resources.get(i);
-            resource.encodeAll(context);
+        boolean collectPreloads = applicationContext.getConfig().isPreloadResources();
+        Map<String, String> preloads = new LinkedHashMap<>();
+        if (collectPreloads) {
+            context.getAttributes().put(PRELOADS_KEY, preloads);
+        }
+
+        if (applicationContext.getConfig().isResourceBundlingEnabled()) {
+            encodeBundledResources(context, resources);
+        }
+        else {
+            for (int i = 0; i < resources.size(); i++) {
+                UIComponent resource = resources.get(i);
+                resource.encodeAll(context);
+                addPreload(context, resource);
+            }
+        }
+
+        if (collectPreloads) {
+            context.getAttributes().remove(PRELOADS_KEY);
+            // the resources of this rendering are sent before rendering the next request of the same view
+            String preloadKey = ResourcePreloadPhaseListener.getPreloadKey(context, viewRoot);
+            if (!preloads.equals(applicationContext.getPreloadResources().get(preloadKey))) {
+                applicationContext.getPreloadResources().put(preloadKey, Collections.unmodifiableMap(preloads));
+            }
+            ResourcePreloadPhaseListener.addLinkHeaders(context, preloads);
         }
 
         // normal CSV is a required dependency for some special components like fileupload
@@ -196,6 +226,142 @@ public class HeadRenderer extends Renderer {
         }
     }
 
+    /**
+     * Encodes the registered resources, replacing the JavaScript and CSS resources of the PrimeFaces library
+     * by one bundle per type. Only contiguous runs of PrimeFaces resources are bundled, so other resources keep their
+     * position relative to them. A bundle is rendered at the position of its first resource within the run.
+     */
+    protected void encodeBundledResources(FacesContext context, List<UIComponent> resources) throws IOException {
+        List<UIComponent> run = new ArrayList<>();
+        for (int i = 0; i < resources.size(); i++) {
+            UIComponent resource = resources.get(i);
+            if (getBundleableResourceName(context, resource) != null) {
+                run.add(resource);
+            }
+            else {
+                encodeBundledRun(context, run);
+                run.clear();
+                resource.encodeAll(context);
+                addPreload(context, resource);
+            }
+        }
+        encodeBundledRun(context, run);
+    }
+
+    protected void encodeBundledRun(FacesContext context, List<UIComponent> run) throws IOException {
+        List<String> scripts = new ArrayList<>();
+        List<String> stylesheets = new ArrayList<>();
+        for (int i = 0; i < run.size(); i++) {
+            String name = getBundleableResourceName(context, run.get(i));
+            (name.endsWith(".js") ? scripts : stylesheets).add(name);
+        }
+
+        for (int i = 0; i < run.size(); i++) {
+            UIComponent resource = run.get(i);
+            String name = getBundleableResourceName(context, resource);
+            if (name == null) {
+                // rendered with its bundle already
+                continue;
+            }
+            List<String> bundle = name.endsWith(".js") ? scripts : stylesheets;
+            if (bundle.size() < 2) {
+                resource.encodeAll(context);
+                addPreload(context, resource);
+            }
+            else if (name.equals(bundle.get(0))) {
+                encodeBundle(context, bundle == scripts ? BundledResource.SCRIPT_BUNDLE : BundledResource.STYLESHEET_BUNDLE, bundle);
+            }
+        }
+    }
+
+    protected String getBundleableResourceName(FacesContext context, UIComponent resource) {
+        if (!resource.isRendered()) {
+            return null;
+        }
+
+        Object library = resource.getAttributes().get("library");
+        Object name = resource.getAttributes().get("name");
+        if (!LIBRARY.equals(library) || !(name instanceof String)) {
+            return null;
+        }
+
+        String resourceName = (String) name;
+        if (!resourceName.endsWith(".js") && !resourceName.endsWith(".css")
+                || context.getApplication().getResourceHandler().isResourceRendered(context, resourceName, LIBRARY)) {
+            return null;
+        }
+        return resourceName;
+    }
+
+    protected void encodeBundle(FacesContext context, String bundleName, List<String> resourceNames) throws IOException {
+        ResourceHandler resourceHandler = context.getApplication().getResourceHandler();
+        boolean script = BundledResource.SCRIPT_BUNDLE.equals(bundleName);
+
+        Resource first = resourceHandler.createResource(resourceNames.get(0), LIBRARY);
+        String requestPath = first == null ? null : BundledResource.getRequestPath(first, bundleName, resourceNames);
+        if (requestPath == null) {
+            for (String resourceName : resourceNames) {
+                if (script) {
+                    encodeJS(context, LIBRARY, resourceName);
+                }
+                else {
+                    encodeCSS(context, LIBRARY, resourceName);
+                }
+            }
+        }
+        else {
+            addPreload(context, requestPath, script ? "script" : "style");
+
+            ResponseWriter writer = context.getResponseWriter();
+            String url = context.getExternalContext().encodeResourceURL(requestPath);
+            if (script) {
+                writer.startElement("script", null);
+                writer.writeAttribute("src", url, null);
+                writer.endElement("script");
+            }
+            else {
+                writer.startElement("link", null);
+                writer.writeAttribute("type", "text/css", null);
+                writer.writeAttribute("rel", "stylesheet", null);
+                writer.writeAttribute("href", url, null);
+                writer.endElement("link");
+            }
+        }
+
+        // the bundled resources must not be rendered again, e.g. by AJAX updates
+        for (String resourceName : resourceNames) {
+            resourceHandler.markResourceRendered(context, resourceName, LIBRARY);
+        }
+    }
+
+    /**
+     * Remembers the request path of a registered JavaScript or CSS resource while collecting the preload resources of the view.
+     */
+    protected void addPreload(FacesContext context, UIComponent resource) {
+        if (!context.getAttributes().containsKey(PRELOADS_KEY) || !resource.isRendered()) {
+            return;
+        }
+
+        Object name = resource.getAttributes().get("name");
+        Object library = resource.getAttributes().get("library");
+        if (!(name instanceof String) || !(((String) name).endsWith(".js") || ((String) name).endsWith(".css"))) {
+            return;
+        }
+
+        Resource res = context.getApplication().getResourceHandler().createResource((String) name, (String) library);
+        if (res != null) {
+            addPreload(context, res.getRequestPath(), ((String) name).endsWith(".js") ? "script" : "style");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected void addPreload(FacesContext context, String requestPath, String as) {
+        Map<String, String> preloads = (Map<String, String>) context.getAttributes().get(PRELOADS_KEY);
+        if (preloads != null) {
+            preloads.put(requestPath, as);
+        }
+    }
+
     protected void encodeSettingScripts(FacesContext context, PrimeApplicationContext applicationContext, PrimeRequestContext requestContext,
             ResponseWriter writer) throws IOException {
 
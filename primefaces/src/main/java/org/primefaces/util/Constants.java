@@ -32,7 +32,9 @@ public class Constants {
 
         // PF context params
         public static final String BEAN_VALIDATION_DISABLED = "javax.faces.validator.DISABLE_DEFAULT_BEAN_VALIDATOR";
+        public static final String CACHE_FRAGMENT_STORAGE = "primefaces.CACHE_FRAGMENT_STORAGE";
         public static final String CACHE_PROVIDER = "primefaces.CACHE_PROVIDER";
+        public static final String CACHE_PROVIDER_MAX_SIZE = "primefaces.CACHE_PROVIDER_MAX_SIZE";
         public static final String CLIENT_SIDE_LOCALISATION = "primefaces.CLIENT_SIDE_LOCALISATION";
         public static final String COOKIES_SAME_SITE = "primefaces.COOKIES_SAME_SITE";
         public static final String CSP = "primefaces.CSP";
@@ -40,8 +42,12 @@ public class Constants {
         public static final String CSP_REPORT_ONLY_POLICY = "primefaces.CSP_REPORT_ONLY_POLICY";
         public static final String CSV = "primefaces.CLIENT_SIDE_VALIDATION";
         public static final String DIRECTION = "primefaces.DIR";
+        public static final String DYNAMIC_CONTENT_SECRET = "primefaces.DYNAMIC_CONTENT_SECRET";
+        public static final String DYNAMIC_CONTENT_STATELESS = "primefaces.DYNAMIC_CONTENT_STATELESS";
         public static final String EARLY_POST_PARAM_EVALUATION = "primefaces.EARLY_POST_PARAM_EVALUATION";
         public static final String EXCEPTION_TYPES_TO_IGNORE_IN_LOGGING = "primefaces.EXCEPTION_TYPES_TO_IGNORE_IN_LOGGING";
+        public static final String EXPORTER_EXECUTOR = "primefaces.EXPORTER_EXECUTOR";
+        public static final String EXPORTER_PARALLEL_TIMEOUT = "primefaces.EXPORTER_PARALLEL_TIMEOUT";
         public static final String FLEX = "primefaces.FLEX";
         public static final String HIDE_RESOURCE_VERSION = "primefaces.HIDE_RESOURCE_VERSION";
         public static final String HTML5_COMPLIANCE = "primefaces.HTML5_COMPLIANCE";
@@ -49,13 +55,24 @@ public class Constants {
         public static final String LEGACY_WIDGET_NAMESPACE = "primefaces.LEGACY_WIDGET_NAMESPACE";
         public static final String MARK_INPUT_AS_INVALID_ON_ERROR_MSG = "primefaces.MARK_INPUT_AS_INVALID_ON_ERROR_MSG";
         public static final String MOVE_SCRIPTS_TO_BOTTOM = "primefaces.MOVE_SCRIPTS_TO_BOTTOM";
+        public static final String MULTI_VIEW_STATE_CACHE_MAX_SIZE = "primefaces.MULTI_VIEW_STATE_CACHE_MAX_SIZE";
         public static final String MULTI_VIEW_STATE_STORE = "primefaces.MULTI_VIEW_STATE_STORE";
+        public static final String PRELOAD_RESOURCES = "primefaces.PRELOAD_RESOURCES";
         public static final String PRIME_ICONS = "primefaces.PRIME_ICONS";
         public static final String RESET_VALUES = "primefaces.RESET_VALUES";
+        public static final String RESOURCE_BUNDLING = "primefaces.RESOURCE_BUNDLING";
+        public static final String RESOURCE_COMPRESSION = "primefaces.RESOURCE_COMPRESSION";
         public static final String SUBMIT = "primefaces.SUBMIT";
         public static final String THEME = "primefaces.THEME";
         public static final String TOUCHABLE = "primefaces.TOUCHABLE";
         public static final String TRANSFORM_METADATA = "primefaces.TRANSFORM_METADATA";
+        public static final String UPLOAD_CHUNKS_MAX_AGE = "primefaces.UPLOAD_CHUNKS_MAX_AGE";
+        public static final String UPLOAD_CHUNKS_MAX_DISK_USAGE = "primefaces.UPLOAD_CHUNKS_MAX_DISK_USAGE";
+        public static final String UPLOAD_MAX_BYTES_PER_SECOND = "primefaces.UPLOAD_MAX_BYTES_PER_SECOND";
+        public static final String UPLOAD_MAX_CONCURRENT = "primefaces.UPLOAD_MAX_CONCURRENT";
+        public static final String UPLOAD_MAX_CONCURRENT_PER_SESSION = "primefaces.UPLOAD_MAX_CONCURRENT_PER_SESSION";
+        public static final String VIRUS_SCAN_ASYNC = "primefaces.VIRUS_SCAN_ASYNC";
+        public static final String VIRUS_SCAN_CACHE_SIZE = "primefaces.VIRUS_SCAN_CACHE_SIZE";
         @Deprecated(forRemoval = true, since = "14.0.0")
         public static final String UPLOADER = "primefaces.UPLOADER";
 
@@ -91,6 +108,8 @@ public class Constants {
     public static final String DYNAMIC_CONTENT_PARAM = "pfdrid";
     public static final String DYNAMIC_CONTENT_CACHE_PARAM = "pfdrid_c";
     public static final String DYNAMIC_CONTENT_TYPE_PARAM = "pfdrt";
+    public static final String DYNAMIC_CONTENT_RESIZE_PARAM = "pfdrrs";
+    public static final String RESOURCE_BUNDLE_PARAM = "pfrb";
     public static final String DYNAMIC_RESOURCES_MAPPING = "primefaces.dynamicResourcesMapping";
 
     public static final String BARCODE_MAPPING = "primefaces.barcodeMapping";
@@ -37,6 +37,7 @@ import javax.faces.component.UIComponent;
 import javax.faces.component.UIParameter;
 import javax.faces.context.FacesContext;
 import org.primefaces.application.resource.DynamicContentType;
+import org.primefaces.context.PrimeApplicationContext;
 import org.primefaces.el.ValueExpressionAnalyzer;
 import org.primefaces.model.StreamedContent;
 
@@ -48,6 +49,17 @@ public class DynamicContentSrcBuilder {
     }
 
     public static String build(FacesContext context, UIComponent component, ValueExpression ve, Lazy<Object> value, boolean cache, boolean stream) {
+        return build(context, component, ve, value, cache, stream, null);
+    }
+
+    /**
+     * Builds the src of the dynamic content.
+     *
+     * @param params additional request parameters of the streamed content, e.g. to transform it; may be <code>null</code>.
+     *     They are bound to the expression, see {@link #encodeParam(FacesContext, String, String, String, String)}.
+     */
+    public static String build(FacesContext context, UIComponent component, ValueExpression ve, Lazy<Object> value, boolean cache, boolean stream,
+            Map<String, String> params) {
         Class<?> type = ELUtils.getType(context, ve, value);
 
         // skip null type
@@ -62,7 +74,7 @@ public class DynamicContentSrcBuilder {
         else if (StreamedContent.class.isAssignableFrom(type)) {
             if (stream) {
                 ValueExpression extractedVE = ValueExpressionAnalyzer.getExpression(context.getELContext(), ve);
-                return buildStreaming(context, component, extractedVE, cache);
+                return buildStreaming(context, component, extractedVE, cache, params);
             }
             else {
                 StreamedContent streamedContent = (StreamedContent) value.get();
@@ -75,7 +87,7 @@ public class DynamicContentSrcBuilder {
         else if (byte[].class.isAssignableFrom(type)) {
             if (stream) {
                 ValueExpression extractedVE = ValueExpressionAnalyzer.getExpression(context.getELContext(), ve);
-                return buildStreaming(context, component, extractedVE, cache);
+                return buildStreaming(context, component, extractedVE, cache, params);
             }
             else {
                 return ResourceUtils.toBase64(context, (byte[]) value.get());
@@ -84,7 +96,7 @@ public class DynamicContentSrcBuilder {
         else if (InputStream.class.isAssignableFrom(type)) {
             if (stream) {
                 ValueExpression extractedVE = ValueExpressionAnalyzer.getExpression(context.getELContext(), ve);
-                return buildStreaming(context, component, extractedVE, cache);
+                return buildStreaming(context, component, extractedVE, cache, params);
             }
             else {
                 return ResourceUtils.toBase64(context, (InputStream) value.get());
@@ -95,6 +107,11 @@ public class DynamicContentSrcBuilder {
     }
 
     public static String buildStreaming(FacesContext context, UIComponent component, ValueExpression valueExpression, boolean cache) {
+        return buildStreaming(context, component, valueExpression, cache, null);
+    }
+
+    public static String buildStreaming(FacesContext context, UIComponent component, ValueExpression valueExpression, boolean cache,
+            Map<String, String> params) {
 
         // just a dummy file for streaming
         // JSF will also append the suffix (e.g. -> dynamiccontent.properties.xhtml)
@@ -103,17 +120,26 @@ public class DynamicContentSrcBuilder {
                 "dynamiccontent.properties", "primefaces", "text/plain");
         String resourcePath = resource.getRequestPath();
 
-        Map<String, Object> session = context.getExternalContext().getSessionMap();
-        Map<String, String> dynamicResourcesMapping = (Map) session.get(Constants.DYNAMIC_RESOURCES_MAPPING);
-        if (dynamicResourcesMapping == null) {
-            dynamicResourcesMapping = new LimitedSizeHashMap<>(200);
-            session.put(Constants.DYNAMIC_RESOURCES_MAPPING, dynamicResourcesMapping);
+        String expressionString = valueExpression.getExpressionString();
+        String resourceKey;
+
+        PrimeApplicationContext applicationContext = PrimeApplicationContext.getCurrentInstance(context);
+        if (applicationContext.getConfig().isDynamicContentStateless()) {
+            // the expression travels encrypted with the URL, so nothing has to be stored in the session
+            resourceKey = applicationContext.getDynamicContentEncrypter().encrypt(expressionString);
         }
+        else {
+            Map<String, Object> session = context.getExternalContext().getSessionMap();
+            Map<String, String> dynamicResourcesMapping = (Map) session.get(Constants.DYNAMIC_RESOURCES_MAPPING);
+            if (dynamicResourcesMapping == null) {
+                dynamicResourcesMapping = new LimitedSizeHashMap<>(200);
+                session.put(Constants.DYNAMIC_RESOURCES_MAPPING, dynamicResourcesMapping);
+            }
 
-        String expressionString = valueExpression.getExpressionString();
-        String resourceKey = md5(expressionString);
+            resourceKey = md5(expressionString);
 
-        dynamicResourcesMapping.put(resourceKey, expressionString);
+            dynamicResourcesMapping.put(resourceKey, expressionString);
+        }
 
         try {
             StringBuilder builder = SharedStringBuilder.get(context, SB_BUILD_STREAMING);
@@ -121,6 +147,13 @@ public class DynamicContentSrcBuilder {
                     .append("&").append(Constants.DYNAMIC_CONTENT_PARAM).append("=").append(URLEncoder.encode(resourceKey, "UTF-8"))
                     .append("&").append(Constants.DYNAMIC_CONTENT_TYPE_PARAM).append("=").append(DynamicContentType.STREAMED_CONTENT.toString());
 
+            if (params != null) {
+                for (Map.Entry<String, String> param : params.entrySet()) {
+                    String encoded = encodeParam(context, resourceKey, expressionString, param.getKey(), param.getValue());
+                    builder.append("&").append(param.getKey()).append("=").append(URLEncoder.encode(encoded, "UTF-8"));
+                }
+            }
+
             if (component != null) {
                 for (int i = 0; i < component.getChildCount(); i++) {
                     UIComponent child = component.getChildren().get(i);
@@ -146,6 +179,54 @@ public class DynamicContentSrcBuilder {
         }
     }
 
+    /**
+     * Binds a parameter of the streamed content to its expression, so the client can neither alter it nor reuse it for
+     * other content. In stateless mode the parameter is encrypted together with the expression, otherwise it is
+     * registered next to the expression in the session.
+     *
+     * @param context the {@link FacesContext}
+     * @param resourceKey the value of the {@link Constants#DYNAMIC_CONTENT_PARAM} request parameter
+     * @param expressionString the expression of the streamed content
+     * @param name the name of the parameter
+     * @param value the value of the parameter
+     * @return the value to send as request parameter
+     */
+    public static String encodeParam(FacesContext context, String resourceKey, String expressionString, String name, String value) {
+        PrimeApplicationContext applicationContext = PrimeApplicationContext.getCurrentInstance(context);
+        if (applicationContext.getConfig().isDynamicContentStateless()) {
+            return applicationContext.getDynamicContentEncrypter().encrypt(expressionString + '|' + name + '=' + value);
+        }
+
+        Map<String, String> dynamicResourcesMapping = (Map) context.getExternalContext().getSessionMap().get(Constants.DYNAMIC_RESOURCES_MAPPING);
+        dynamicResourcesMapping.put(resourceKey + '|' + name + '=' + value, value);
+        return value;
+    }
+
+    /**
+     * Reads a parameter bound by {@link #encodeParam(FacesContext, String, String, String, String)}.
+     *
+     * @param context the {@link FacesContext}
+     * @param resourceKey the value of the {@link Constants#DYNAMIC_CONTENT_PARAM} request parameter
+     * @param expressionString the expression of the requested streamed content
+     * @param name the name of the parameter
+     * @param encoded the value of the request parameter
+     * @return the value or <code>null</code> if it has been altered or belongs to other content
+     */
+    public static String decodeParam(FacesContext context, String resourceKey, String expressionString, String name, String encoded) {
+        PrimeApplicationContext applicationContext = PrimeApplicationContext.getCurrentInstance(context);
+        if (applicationContext.getConfig().isDynamicContentStateless()) {
+            String decrypted = applicationContext.getDynamicContentEncrypter().decrypt(encoded);
+            String prefix = expressionString + '|' + name + '=';
+            if (decrypted == null || !decrypted.startsWith(prefix)) {
+                return null;
+            }
+            return decrypted.substring(prefix.length());
+        }
+
+        Map<String, String> dynamicResourcesMapping = (Map) context.getExternalContext().getSessionMap().get(Constants.DYNAMIC_RESOURCES_MAPPING);
+        return dynamicResourcesMapping == null ? null : dynamicResourcesMapping.get(resourceKey + '|' + name + '=' + encoded);
+    }
+
     protected static String md5(String input) {
 
         MessageDigest messageDigest;
@@ -27,7 +27,9 @@ import org.apache.commons.io.FilenameUtils;
 import org.primefaces.component.fileupload.FileUploadChunkDecoder;
 import org.primefaces.component.fileupload.FileUploadDecoder;
 import org.primefaces.context.PrimeApplicationContext;
+import org.primefaces.model.file.NIOUploadedFile;
 import org.primefaces.model.file.UploadedFile;
+import org.primefaces.model.file.UploadedFileWrapper;
 import org.primefaces.virusscan.VirusException;
 
 import javax.faces.FacesException;
@@ -35,23 +37,29 @@ import javax.faces.application.FacesMessage;
 import javax.faces.context.FacesContext;
 import javax.faces.validator.ValidatorException;
 import javax.servlet.http.HttpServletRequest;
-import java.io.BufferedInputStream;
+import javax.xml.bind.DatatypeConverter;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.PushbackInputStream;
+import java.io.SequenceInputStream;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
@@ -66,6 +74,21 @@ public class FileUploadUtils {
 
     private static final Logger LOGGER = Logger.getLogger(FileUploadUtils.class.getName());
 
+    /**
+     * How many bytes at the beginning of an upload are used to detect its content type.
+     */
+    private static final int CONTENT_SNIFF_LIMIT = 64 * 1024;
+
+    /**
+     * Container types whose actual type (e.g. DOCX or ODT instead of ZIP) may only be detectable from the whole file.
+     */
+    private static final Set<String> CONTAINER_CONTENT_TYPES = Set.of(
+            "application/zip",
+            "application/x-tika-ooxml",
+            "application/x-tika-msoffice");
+
+    private static final String PENDING_VIRUS_SCANS = FileUploadUtils.class.getName() + ".PENDING_VIRUS_SCANS";
+
     // https://owasp.org/www-community/OWASP_Validation_Regex_Repository
     private static final Pattern INVALID_FILENAME_WINDOWS =
             Pattern.compile("^(?!^(PRN|AUX|CLOCK\\$|NUL|CON|COM\\d|LPT\\d|\\..*)(\\..+)?$)[^\\x00-\\x1f\\\\?*:\\\";|/<>]+$");
@@ -177,7 +200,7 @@ public class FileUploadUtils {
         String fileName = uploadedFile.getFileName();
         try (InputStream input = uploadedFile.getInputStream()) {
             boolean validType = isValidFileName(uploadedFile, allowTypes)
-                        && isValidFileContent(context, accept, fileName, input);
+                        && isValidFileContent(context, accept, uploadedFile, input);
             if (validType) {
                 if (LOGGER.isLoggable(Level.FINE)) {
                     LOGGER.fine(String.format("The uploaded file %s meets the filename and content type specifications", fileName));
@@ -240,18 +263,51 @@ public class FileUploadUtils {
     }
 
     private static boolean isValidFileContent(PrimeApplicationContext primeAppContext, String allowedContentTypes,
-                                              String fileName, InputStream stream) throws IOException {
+                                              UploadedFile uploadedFile, InputStream stream) throws IOException {
         if (LangUtils.isBlank(allowedContentTypes)) {
             return true;
         }
 
+        String fileName = uploadedFile.getFileName();
+
+        // the magic bytes are at the beginning, so don't copy the whole upload just to detect its type
+        byte[] head = stream.readNBytes(CONTENT_SNIFF_LIMIT + 1);
+        String contentType = probeContentType(primeAppContext, uploadedFile, new ByteArrayInputStream(head));
+
+        // but container formats like OOXML may need the whole file to be told apart from a plain ZIP
+        boolean truncated = head.length > CONTENT_SNIFF_LIMIT;
+        if (truncated && contentType != null && CONTAINER_CONTENT_TYPES.contains(contentType.toLowerCase(Locale.ROOT))
+                && !isAcceptedContentType(allowedContentTypes, fileName, contentType)) {
+            contentType = probeContentType(primeAppContext, uploadedFile, new SequenceInputStream(new ByteArrayInputStream(head), stream));
+        }
+
+        if (contentType == null) {
+            LOGGER.log(Level.WARNING, () -> String.format("Could not determine content type of uploaded file %s", fileName));
+            return false;
+        }
+
+        if (!isAcceptedContentType(allowedContentTypes, fileName, contentType)) {
+            String contentTypeLC = contentType.toLowerCase();
+            LOGGER.log(Level.FINE,
+                    () -> String.format("Uploaded file %s with content type %s does not match the accept specification %s",
+                            fileName, contentTypeLC, allowedContentTypes));
+            return false;
+        }
+
+        return true;
+    }
+
+    private static String probeContentType(PrimeApplicationContext primeAppContext, UploadedFile uploadedFile, InputStream content)
+            throws IOException {
+        String fileName = uploadedFile.getFileName();
         String prefix = FilenameUtils.removeExtension(fileName);
         Path tempFile = Files.createTempFile(prefix, Constants.EMPTY_STRING);
         String contentType;
 
-        try (InputStream in = new PushbackInputStream(new BufferedInputStream(stream));
-             OutputStream out = Files.newOutputStream(tempFile)) {
-            IOUtils.copyLarge(in, out);
+        try {
+            try (InputStream in = content; OutputStream out = Files.newOutputStream(tempFile)) {
+                IOUtils.copyLarge(in, out);
+            }
 
             contentType = primeAppContext.getFileTypeDetector().probeContentType(tempFile);
 
@@ -263,9 +319,16 @@ public class FileUploadUtils {
             if (contentType == null) {
                 String extension = FilenameUtils.getExtension(fileName);
                 if (!extension.isEmpty()) {
-                    String newFileName = tempFile.getFileName().toString() + "." + extension;
-                    tempFile = Files.move(tempFile, tempFile.resolveSibling(newFileName));
-                    contentType = primeAppContext.getFileTypeDetector().probeContentType(tempFile);
+                    Path source = uploadedFile instanceof NIOUploadedFile ? ((NIOUploadedFile) uploadedFile).getSource() : null;
+                    if (source != null && extension.equals(FilenameUtils.getExtension(source.getFileName().toString()))) {
+                        // already on disk with the original extension
+                        contentType = primeAppContext.getFileTypeDetector().probeContentType(source);
+                    }
+                    else {
+                        String newFileName = tempFile.getFileName().toString() + "." + extension;
+                        tempFile = Files.move(tempFile, tempFile.resolveSibling(newFileName));
+                        contentType = primeAppContext.getFileTypeDetector().probeContentType(tempFile);
+                    }
                 }
             }
         }
@@ -273,16 +336,15 @@ public class FileUploadUtils {
             deleteFile(tempFile);
         }
 
-        if (contentType == null) {
-            LOGGER.log(Level.WARNING, () -> String.format("Could not determine content type of uploaded file %s", fileName));
-            return false;
-        }
+        return contentType;
+    }
 
+    private static boolean isAcceptedContentType(String allowedContentTypes, String fileName, String contentType) {
         //Comma-separated values: file_extension|audio/*|video/*|image/*|media_type (see https://www.w3schools.com/tags/att_input_accept.asp)
         final String filenameLC = fileName.toLowerCase();
         final String contentTypeLC = contentType.toLowerCase();
 
-        boolean accepted = Stream.of(allowedContentTypes.split(","))
+        return Stream.of(allowedContentTypes.split(","))
                 .map(String::trim)
                 .anyMatch(allowedContentType -> {
                     // try with extension first
@@ -299,15 +361,6 @@ public class FileUploadUtils {
 
                     return false;
                 });
-
-        if (!accepted) {
-            LOGGER.log(Level.FINE,
-                    () -> String.format("Uploaded file %s with content type %s does not match the accept specification %s",
-                            fileName, contentTypeLC, allowedContentTypes));
-            return false;
-        }
-
-        return true;
     }
 
     private static void deleteFile(Path tempFile) {
@@ -327,8 +380,62 @@ public class FileUploadUtils {
         }
     }
 
+    /**
+     * Starts the virus scan of the given file in the background, so it overlaps with the remaining request processing.
+     * The verdict is collected by {@link #performVirusScan(FacesContext, UploadedFile)}.
+     *
+     * @param facesContext the {@link FacesContext}
+     * @param file the uploaded file
+     */
+    public static void startVirusScan(FacesContext facesContext, UploadedFile file) {
+        Map<UploadedFile, Runnable> pendingScans = (Map<UploadedFile, Runnable>) facesContext.getAttributes()
+                .computeIfAbsent(PENDING_VIRUS_SCANS, k -> new IdentityHashMap<>());
+        UploadedFile unwrapped = unwrap(file);
+        pendingScans.put(unwrapped, PrimeApplicationContext.getCurrentInstance(facesContext).getVirusScannerService().startVirusScan(unwrapped));
+    }
+
     public static void performVirusScan(FacesContext facesContext, UploadedFile file) throws VirusException {
-        PrimeApplicationContext.getCurrentInstance(facesContext).getVirusScannerService().performVirusScan(file);
+        Map<UploadedFile, Runnable> pendingScans = (Map<UploadedFile, Runnable>) facesContext.getAttributes().get(PENDING_VIRUS_SCANS);
+        Runnable pendingScan = pendingScans == null ? null : pendingScans.remove(unwrap(file));
+        if (pendingScan != null) {
+            pendingScan.run();
+        }
+        else {
+            PrimeApplicationContext.getCurrentInstance(facesContext).getVirusScannerService().performVirusScan(file);
+        }
+    }
+
+    private static UploadedFile unwrap(UploadedFile file) {
+        UploadedFile unwrapped = file;
+        while (unwrapped instanceof UploadedFileWrapper) {
+            unwrapped = ((UploadedFileWrapper) unwrapped).getWrapped();
+        }
+        return unwrapped;
+    }
+
+    public static String sha256Hex(byte[] content) {
+        MessageDigest md = newSha256();
+        md.update(content);
+        return DatatypeConverter.printHexBinary(md.digest()).toLowerCase(Locale.ROOT);
+    }
+
+    public static String sha256Hex(InputStream is) throws IOException {
+        MessageDigest md = newSha256();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = is.read(buffer)) != -1) {
+            md.update(buffer, 0, read);
+        }
+        return DatatypeConverter.printHexBinary(md.digest()).toLowerCase(Locale.ROOT);
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new FacesException(e);
+        }
     }
 
     public static List<Path> listChunks(Path path) {
@@ -0,0 +1,151 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import javax.faces.FacesException;
+
+/**
+ * Encrypts and authenticates short strings (AES/GCM) into URL-safe tokens, e.g. to pass a value through the client
+ * without storing it on the server.
+ * <p>
+ * The encryption is deterministic: the IV is derived from the value with HMAC-SHA256 (synthetic IV), so the same value
+ * always results in the same token and URLs containing it stay cacheable. Tokens therefore reveal whether they contain
+ * the same value, but nothing else about it.
+ */
+public class StringEncrypter {
+
+    private static final String ALGORITHM = "AES";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH = 128;
+
+    private final SecretKey key;
+    private final SecretKey ivKey;
+
+    /**
+     * @param secret the shared secret, the same secret must be used on all nodes of a cluster
+     */
+    public StringEncrypter(String secret) {
+        this(sha256(secret.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public StringEncrypter(byte[] key) {
+        // independent keys for the encryption and the IV derivation
+        this.key = new SecretKeySpec(hmac(new SecretKeySpec(key, MAC_ALGORITHM), "encryption"), ALGORITHM);
+        this.ivKey = new SecretKeySpec(hmac(new SecretKeySpec(key, MAC_ALGORITHM), "iv"), MAC_ALGORITHM);
+    }
+
+    /**
+     * Creates a {@link StringEncrypter} with a random key, which is only valid for the lifetime of this instance.
+     *
+     * @return the {@link StringEncrypter}
+     */
+    public static StringEncrypter withRandomKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return new StringEncrypter(key);
+    }
+
+    public String encrypt(String value) {
+        try {
+            byte[] iv = Arrays.copyOf(hmac(ivKey, value), IV_LENGTH);
+
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, iv));
+            byte[] encrypted = cipher.doFinal(value.getBytes(StandardCharsets.UTF_8));
+
+            byte[] token = ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+        }
+        catch (GeneralSecurityException e) {
+            throw new FacesException(e);
+        }
+    }
+
+    /**
+     * Decrypts a token created by {@link #encrypt(String)}.
+     *
+     * @param token the token
+     * @return the decrypted value or {@code null} if the token is malformed, was created with another key or has been tampered with
+     */
+    public String decrypt(String token) {
+        if (LangUtils.isBlank(token)) {
+            return null;
+        }
+
+        try {
+            byte[] decoded = Base64.getUrlDecoder().decode(token);
+            if (decoded.length <= IV_LENGTH) {
+                return null;
+            }
+
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, decoded, 0, IV_LENGTH));
+            String decrypted = new String(cipher.doFinal(decoded, IV_LENGTH, decoded.length - IV_LENGTH), StandardCharsets.UTF_8);
+
+            // only accept the canonical token of the value
+            byte[] iv = Arrays.copyOf(hmac(ivKey, decrypted), IV_LENGTH);
+            if (!MessageDigest.isEqual(iv, Arrays.copyOf(decoded, IV_LENGTH))) {
+                return null;
+            }
+            return decrypted;
+        }
+        catch (IllegalArgumentException | GeneralSecurityException e) {
+            return null;
+        }
+    }
+
+    private static byte[] hmac(SecretKey key, String input) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(input.getBytes(StandardCharsets.UTF_8));
+        }
+        catch (GeneralSecurityException e) {
+            throw new FacesException(e);
+        }
+    }
+
+    private static byte[] sha256(byte[] input) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(input);
+        }
+        catch (GeneralSecurityException e) {
+            throw new FacesException(e);
+        }
+    }
+}
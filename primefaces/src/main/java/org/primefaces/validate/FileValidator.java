@@ -140,7 +140,7 @@ public class FileValidator implements Validator, PartialStateHolder, ClientValid
 
         if (Boolean.TRUE.equals(virusScan)) {
             try {
-                PrimeApplicationContext.getCurrentInstance(context).getVirusScannerService().performVirusScan(uploadedFile);
+                FileUploadUtils.performVirusScan(context, uploadedFile);
             }
             catch (VirusException e) {
                 throw new ValidatorException(new FacesMessage(FacesMessage.SEVERITY_ERROR, e.getMessage(), ""), e);
@@ -25,8 +25,12 @@ package org.primefaces.virusscan;
 
 import org.primefaces.model.file.UploadedFile;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * Service provider interface for virus scanning that might be used in file upload component for example when dealing with untrusted files.
+ * Providers are instantiated once and shared by all scans, so implementations must be thread-safe.
  * @see <a href="https://github.com/primefaces/primefaces/issues/4256">fileUpload: virus scan</a>
  */
 public interface VirusScanner {
@@ -43,4 +47,26 @@ public interface VirusScanner {
      */
     void scan(UploadedFile file);
 
+    /**
+     * Starts the virus scan in the background, as soon as the file has been received.
+     * This method is called on the request thread, but the background task must not access the
+     * {@link javax.faces.context.FacesContext}. It completes with the verdict, which is run later on the request thread
+     * and throws a {@link VirusException} if a virus has been detected.
+     * The default implementation returns <code>null</code>, so the file is scanned by {@link #scan(UploadedFile)} instead.
+     *
+     * @param file file to perform virus scan on
+     * @param executor the executor to run the scan with
+     * @return the pending verdict or <code>null</code> if not supported
+     */
+    default CompletableFuture<Runnable> scanAsync(UploadedFile file, Executor executor) {
+        return null;
+    }
+
+    /**
+     * Releases the resources held by this provider, like open connections. Called when the application is shut down.
+     */
+    default void close() {
+        // NOOP
+    }
+
 }
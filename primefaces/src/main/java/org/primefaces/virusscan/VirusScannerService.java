@@ -24,11 +24,26 @@
 package org.primefaces.virusscan;
 
 import org.primefaces.model.file.UploadedFile;
+import org.primefaces.util.Lazy;
+import org.primefaces.util.LimitedSizeHashMap;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  * This service may be used to load registered {@link VirusScanner} providers and perform virus scan.
@@ -37,10 +52,41 @@ public class VirusScannerService {
 
     private static final Logger LOGGER = Logger.getLogger(VirusScannerService.class.getName());
 
-    private final ClassLoader classLoader;
+    /**
+     * How long a clean verdict is trusted, so known content is scanned again with updated signatures.
+     */
+    private static final long CLEAN_VERDICT_TTL = TimeUnit.HOURS.toMillis(1);
+
+    private final Lazy<List<VirusScanner>> scanners;
+    private final Lazy<ExecutorService> executor;
+    // SHA-256 digest of clean content -> expiry, null if disabled
+    private final Map<String, Long> cleanVerdicts;
+    // background steps not completed yet, failed on shutdown as their queued tasks are dropped
+    private final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
 
     public VirusScannerService(ClassLoader classLoader) {
-        this.classLoader = classLoader;
+        this(classLoader, 0);
+    }
+
+    /**
+     * @param classLoader the class loader to load the {@link VirusScanner} providers with
+     * @param cacheSize how many digests of clean content are remembered to skip scanning them again, 0 to disable
+     */
+    public VirusScannerService(ClassLoader classLoader, int cacheSize) {
+        // ServiceLoader is not thread-safe, so collect all providers once instead of iterating it concurrently
+        // https://docs.oracle.com/javase/7/docs/api/java/util/ServiceLoader.html
+        this.scanners = new Lazy<>(() -> ServiceLoader.load(VirusScanner.class, classLoader).stream()
+                .map(ServiceLoader.Provider::get)
+                .collect(Collectors.toList()));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new Lazy<>(() -> Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread thread = new Thread(r, "primefaces-virusscan-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }));
+
+        this.cleanVerdicts = cacheSize > 0 ? Collections.synchronizedMap(new LimitedSizeHashMap<>(cacheSize)) : null;
     }
 
     /**
@@ -53,37 +99,184 @@ public class VirusScannerService {
             LOGGER.fine("Performing virus scan...");
         }
 
-        // ServiceLoader is not thread-safe so it cannot be cached:
-        // https://docs.oracle.com/javase/7/docs/api/java/util/ServiceLoader.html
-        Iterator<VirusScanner> scanners = ServiceLoader.load(VirusScanner.class, classLoader).iterator();
-        while (scanners.hasNext()) {
-            try {
-                VirusScanner scanner = scanners.next();
-                String clazz = scanner.getClass().getName();
-                if (!scanner.isEnabled()) {
-                    if (LOGGER.isLoggable(Level.FINE)) {
-                        LOGGER.fine(String.format("Skipping virus scan with %s provider since it is disabled", clazz));
-                    }
-                    continue;
-                }
-                if (LOGGER.isLoggable(Level.FINE)) {
-                    LOGGER.fine(String.format("Performing virus scan with %s provider", clazz));
+        String digest = getDigest(file);
+        if (isKnownClean(digest)) {
+            return;
+        }
+
+        for (VirusScanner scanner : getScanners()) {
+            if (scanner.isEnabled()) {
+                scan(scanner, file);
+            }
+            else if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(String.format("Skipping virus scan with %s provider since it is disabled", scanner.getClass().getName()));
+            }
+        }
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("No virus detected");
+        }
+        markClean(digest);
+    }
+
+    /**
+     * Starts the virus scan of all enabled {@link VirusScanner} providers supporting it in the background.
+     * The digest of the content is computed and looked up in the background too, the providers' background scans
+     * only start once the content is not known to be clean.
+     * The returned verdict must be run on the request thread: it waits for the background scans, performs the scans
+     * of the other providers and throws if at least one provider has detected a virus.
+     *
+     * @param file the file to perform virus scan on
+     * @return the pending verdict
+     */
+    public Runnable startVirusScan(UploadedFile file) {
+        CompletableFuture<String> digest = cleanVerdicts == null
+                ? CompletableFuture.completedFuture(null)
+                : track(CompletableFuture.supplyAsync(() -> getDigest(file), executor.get()).exceptionally(ex -> {
+                    LOGGER.log(Level.WARNING, ex, () -> "Could not compute digest of " + file.getFileName());
+                    return null;
+                }));
+        CompletableFuture<Boolean> knownClean = digest.thenApply(this::isKnownClean);
+        Executor scanExecutor = task -> knownClean.thenAcceptAsync(clean -> {
+            if (!clean) {
+                task.run();
+            }
+        }, executor.get());
+
+        List<VirusScanner> syncScanners = new ArrayList<>();
+        List<CompletableFuture<Runnable>> verdicts = new ArrayList<>();
+        for (VirusScanner scanner : getScanners()) {
+            if (scanner.isEnabled()) {
+                CompletableFuture<Runnable> verdict = scanner.scanAsync(file, scanExecutor);
+                if (verdict == null) {
+                    syncScanners.add(scanner);
                 }
-                scanner.scan(file);
-                if (LOGGER.isLoggable(Level.FINE)) {
-                    LOGGER.fine(String.format("No virus detected with %s provider", clazz));
+                else {
+                    verdicts.add(track(verdict));
                 }
             }
-            catch (VirusException ex) {
-                if (LOGGER.isLoggable(Level.SEVERE)) {
-                    LOGGER.severe("Detected a virus");
+        }
+
+        return () -> {
+            if (join(knownClean)) {
+                return;
+            }
+            for (VirusScanner scanner : syncScanners) {
+                scan(scanner, file);
+            }
+            for (CompletableFuture<Runnable> verdict : verdicts) {
+                try {
+                    join(verdict).run();
                 }
-                throw ex;
+                catch (VirusException ex) {
+                    if (LOGGER.isLoggable(Level.SEVERE)) {
+                        LOGGER.severe("Detected a virus");
+                    }
+                    throw ex;
+                }
+            }
+            markClean(join(digest));
+        };
+    }
+
+    private <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+        pending.add(future);
+        future.whenComplete((result, ex) -> pending.remove(future));
+        if (executor.get().isShutdown()) {
+            future.completeExceptionally(new VirusException("Virus scan cancelled, the application is shutting down"));
+        }
+        return future;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        }
+        catch (CompletionException ex) {
+            if (ex.getCause() instanceof VirusException) {
+                throw (VirusException) ex.getCause();
             }
+            throw new VirusException(String.format("Unexpected error scanning file - %s", ex.getCause().getMessage()));
+        }
+    }
+
+    private String getDigest(UploadedFile file) {
+        return cleanVerdicts == null ? null : file.getSha256();
+    }
+
+    private boolean isKnownClean(String digest) {
+        if (digest == null) {
+            return false;
+        }
+        Long expiry = cleanVerdicts.get(digest);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry < System.currentTimeMillis()) {
+            cleanVerdicts.remove(digest);
+            return false;
         }
         if (LOGGER.isLoggable(Level.FINE)) {
-            LOGGER.fine("No virus detected");
+            LOGGER.fine("Skipping virus scan since the content is known to be clean");
+        }
+        return true;
+    }
+
+    private void markClean(String digest) {
+        if (digest != null) {
+            cleanVerdicts.put(digest, System.currentTimeMillis() + CLEAN_VERDICT_TTL);
+        }
+    }
+
+    private void scan(VirusScanner scanner, UploadedFile file) {
+        String clazz = scanner.getClass().getName();
+        try {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(String.format("Performing virus scan with %s provider", clazz));
+            }
+            scanner.scan(file);
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(String.format("No virus detected with %s provider", clazz));
+            }
+        }
+        catch (VirusException ex) {
+            if (LOGGER.isLoggable(Level.SEVERE)) {
+                LOGGER.severe("Detected a virus");
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Stops the background scans and closes the providers, called when the application is shut down.
+     */
+    public void shutdown() {
+        if (executor.isInitialized()) {
+            executor.get().shutdownNow();
         }
+        // the dropped tasks never complete their futures, fail them so no request waits forever for its verdict
+        VirusException cancelled = new VirusException("Virus scan cancelled, the application is shutting down");
+        for (CompletableFuture<?> future : pending) {
+            future.completeExceptionally(cancelled);
+        }
+        if (scanners.isInitialized()) {
+            for (VirusScanner scanner : scanners.get()) {
+                try {
+                    scanner.close();
+                }
+                catch (RuntimeException ex) {
+                    LOGGER.log(Level.WARNING, ex, () -> "Could not close virus scanner " + scanner.getClass().getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the registered {@link VirusScanner} providers. They are loaded only once and shared by all scans.
+     *
+     * @return the registered providers
+     */
+    public List<VirusScanner> getScanners() {
+        return scanners.get();
     }
 
 }
@@ -26,21 +26,24 @@ package org.primefaces.virusscan.impl;
 import java.io.*;
 import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
 
 /**
  * Simple client for ClamAV's clamd scanner.
  * Provides straightforward instream scanning.
  * Support for basic INSTREAM scanning and PING command.
+ * Scans are sent within <code>IDSESSION</code> sessions, which are kept open and reused by subsequent scans
+ * (up to {@link #getMaxIdleConnections()} idle connections), so bulk uploads don't pay a TCP handshake per file.
  * Clamd protocol is explained here:
  * <p>
  * <a href="http://linux.die.net/man/8/clamd">http://linux.die.net/man/8/clamd</a>
  *
  * @see <a href="https://github.com/solita/clamav-java">clamav-java</a>
  */
-public class ClamDaemonClient {
+public class ClamDaemonClient implements Closeable {
 
     // "do not exceed StreamMaxLength as defined in clamd.conf, otherwise clamd
     // will reply with INSTREAM size limit exceeded and close the connection."
@@ -48,11 +51,17 @@ public class ClamDaemonClient {
     public static final String DEFAULT_HOST = "localhost";
     public static final int DEFAULT_PORT = 3310;
     public static final int DEFAULT_TIMEOUT = 30000;
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 4;
+    // below the IdleTimeout of 30 seconds in the default clamd.conf, after which clamd closes a session
+    public static final int DEFAULT_IDLE_TIMEOUT = 10000;
 
     private final int bufferSize;
     private final String host;
     private final int port;
     private final int timeout;
+    private final int maxIdleConnections;
+    private final BlockingDeque<Session> idleSessions;
+    private volatile boolean closed;
 
     /**
      * @param host The hostname of the server running clamav-daemon
@@ -61,16 +70,32 @@ public class ClamDaemonClient {
      * @param bufferSize The buffer (chunk size).
      */
     public ClamDaemonClient(final String host, final int port, final int timeout, final int bufferSize) {
+        this(host, port, timeout, bufferSize, DEFAULT_MAX_IDLE_CONNECTIONS);
+    }
+
+    /**
+     * @param host The hostname of the server running clamav-daemon
+     * @param port The port that clamav-daemon listens to(By default it might not listen to a port. Check your clamav configuration).
+     * @param timeout zero means infinite timeout. Not a good idea, but will be accepted.
+     * @param bufferSize The buffer (chunk size).
+     * @param maxIdleConnections how many idle sessions are kept open for reuse, zero to close each after its scan.
+     */
+    public ClamDaemonClient(final String host, final int port, final int timeout, final int bufferSize, final int maxIdleConnections) {
         if (timeout < 0) {
             throw new IllegalArgumentException("Negative timeout value does not make sense.");
         }
         if (bufferSize <= 0) {
             throw new IllegalArgumentException("Chunk size must be greater than zero.");
         }
+        if (maxIdleConnections < 0) {
+            throw new IllegalArgumentException("Negative amount of idle connections does not make sense.");
+        }
         this.host = host;
         this.port = port;
         this.timeout = timeout;
         this.bufferSize = bufferSize;
+        this.maxIdleConnections = maxIdleConnections;
+        this.idleSessions = new LinkedBlockingDeque<>(Math.max(1, maxIdleConnections));
     }
 
     public ClamDaemonClient() {
@@ -97,6 +122,10 @@ public class ClamDaemonClient {
         return timeout;
     }
 
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
     /**
      * Run PING command to CLAMD to test it is responding.
      *
@@ -120,42 +149,49 @@ public class ClamDaemonClient {
      * memory, for instance by scanning a file on disk. Since the parameter InputStream is not reset, you can not use the stream afterwards, as it will be left
      * in a EOF-state. If your goal is to scan some data, and then pass that data further, consider using {@link #scan(byte[]) scan(byte[] in)}.
      * <p>
-     * Opens a socket and reads the reply. Parameter input stream is NOT closed.
+     * Reuses an idle session or opens a new one and reads the reply. If a reused session turns out to be closed by the server and the stream
+     * supports {@link InputStream#mark(int)}, the scan is repeated once with a new session. Parameter input stream is NOT closed.
      *
      * @param is data to scan. Not closed by this method!
      * @return server reply
      * @throws IOException if there is an I/O problem
      */
     public byte[] scan(final InputStream is) throws IOException {
-        try (Socket s = getSocket(); OutputStream outs = new BufferedOutputStream(s.getOutputStream())) {
-            // handshake
-            outs.write(asBytes("zINSTREAM\0"));
-            outs.flush();
-            final byte[] chunk = new byte[this.bufferSize];
-
-            // send data
-            int readLen = is.read(chunk);
-            while (readLen >= 0) {
-                // The format of the chunk is: '<length><data>' where <length> is
-                // the size of the following data in bytes expressed as a 4 byte
-                // unsigned
-                // integer in network byte order and <data> is the actual chunk.
-                // Streaming is terminated by sending a zero-length chunk.
-                final byte[] length = ByteBuffer.allocate(4).putInt(readLen).array();
-                outs.write(length);
-                outs.write(chunk, 0, readLen);
-                readLen = is.read(chunk);
-            }
+        boolean replayable = is.markSupported();
+        if (replayable) {
+            is.mark(Integer.MAX_VALUE);
+        }
 
-            // terminate scan
-            outs.write(new byte[] {0, 0, 0, 0});
-            outs.flush();
+        Session session = pollIdleSession();
+        boolean reused = session != null;
+        if (!reused) {
+            session = openSession();
+        }
 
-            // read reply
-            try (InputStream clamIs = s.getInputStream()) {
-                return readAll(clamIs);
+        try {
+            byte[] reply = session.scan(is);
+            release(session, reply);
+            return reply;
+        }
+        catch (IOException e) {
+            session.close();
+            if (!reused || !replayable) {
+                throw e;
             }
         }
+
+        // the reused session has been closed by clamd in the meantime
+        is.reset();
+        session = openSession();
+        try {
+            byte[] reply = session.scan(is);
+            release(session, reply);
+            return reply;
+        }
+        catch (IOException e) {
+            session.close();
+            throw e;
+        }
     }
 
     /**
@@ -183,6 +219,44 @@ public class ClamDaemonClient {
         return socket;
     }
 
+    /**
+     * Ends and closes all idle sessions. Sessions of scans still running are ended as soon as they are done.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Session session = idleSessions.pollFirst();
+        while (session != null) {
+            session.end();
+            session = idleSessions.pollFirst();
+        }
+    }
+
+    private Session openSession() throws IOException {
+        return new Session(getSocket(), bufferSize);
+    }
+
+    private Session pollIdleSession() {
+        Session session = idleSessions.pollFirst();
+        while (session != null && System.currentTimeMillis() - session.lastUsed > DEFAULT_IDLE_TIMEOUT) {
+            session.end();
+            session = idleSessions.pollFirst();
+        }
+        return session;
+    }
+
+    private void release(Session session, byte[] reply) {
+        // clamd closes the session after errors like "INSTREAM size limit exceeded"
+        boolean reusable = !new String(reply, StandardCharsets.US_ASCII).contains("ERROR");
+        if (!reusable || maxIdleConnections == 0 || !idleSessions.offerFirst(session)) {
+            session.end();
+        }
+        else if (closed && idleSessions.remove(session)) {
+            // closed while scanning
+            session.end();
+        }
+    }
+
     /**
      * Interpret the result from a ClamAV scan, and determine if the result means the data is clean.
      *
@@ -205,21 +279,109 @@ public class ClamDaemonClient {
     }
 
     /**
-     * Reads all available bytes from the stream
+     * Reads a reply terminated by a NUL character, as sent for commands prefixed with <code>z</code>.
      *
      * @param is the InputStream to read
-     * @return the byte[] array output
-     * @throws IOException if any error occurs reading stream
+     * @return the reply without the terminating NUL
+     * @throws IOException if the connection has been closed before the reply was complete
      */
-    private static byte[] readAll(final InputStream is) throws IOException {
-        final ByteArrayOutputStream tmp = new ByteArrayOutputStream();
-
-        final byte[] buf = new byte[2000];
-        int read = is.read(buf);
+    private static byte[] readReply(final InputStream is) throws IOException {
+        final ByteArrayOutputStream tmp = new ByteArrayOutputStream(64);
+        int read = is.read();
         while (read > 0) {
-            tmp.write(buf, 0, read);
-            read = is.read(buf);
+            tmp.write(read);
+            read = is.read();
+        }
+        if (read < 0) {
+            throw new EOFException("clamd closed the connection");
         }
         return tmp.toByteArray();
     }
+
+    /**
+     * An open <code>IDSESSION</code> connection with its reusable buffers.
+     */
+    private static final class Session implements Closeable {
+
+        private final Socket socket;
+        private final OutputStream out;
+        private final InputStream in;
+        private final byte[] chunk;
+        private final byte[] length = new byte[4];
+        private long lastUsed;
+
+        private Session(Socket socket, int bufferSize) throws IOException {
+            this.socket = socket;
+            try {
+                this.out = new BufferedOutputStream(socket.getOutputStream(), bufferSize + length.length);
+                this.in = new BufferedInputStream(socket.getInputStream());
+                this.chunk = new byte[bufferSize];
+                out.write(asBytes("zIDSESSION\0"));
+                out.flush();
+            }
+            catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+        private byte[] scan(InputStream is) throws IOException {
+            out.write(asBytes("zINSTREAM\0"));
+
+            // send data
+            int readLen = is.read(chunk);
+            while (readLen >= 0) {
+                // The format of the chunk is: '<length><data>' where <length> is
+                // the size of the following data in bytes expressed as a 4 byte
+                // unsigned
+                // integer in network byte order and <data> is the actual chunk.
+                // Streaming is terminated by sending a zero-length chunk.
+                if (readLen > 0) {
+                    writeLength(readLen);
+                    out.write(chunk, 0, readLen);
+                }
+                readLen = is.read(chunk);
+            }
+
+            // terminate scan
+            writeLength(0);
+            out.flush();
+
+            byte[] reply = readReply(in);
+            lastUsed = System.currentTimeMillis();
+            return reply;
+        }
+
+        private void writeLength(int value) throws IOException {
+            length[0] = (byte) (value >>> 24);
+            length[1] = (byte) (value >>> 16);
+            length[2] = (byte) (value >>> 8);
+            length[3] = (byte) value;
+            out.write(length);
+        }
+
+        /**
+         * Ends the session and closes the connection, ignoring errors.
+         */
+        private void end() {
+            try {
+                out.write(asBytes("zEND\0"));
+                out.flush();
+            }
+            catch (IOException e) {
+                // NOOP, closed anyway
+            }
+            close();
+        }
+
+        @Override
+        public void close() {
+            try {
+                socket.close();
+            }
+            catch (IOException e) {
+                // NOOP
+            }
+        }
+    }
 }
@@ -27,6 +27,8 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -53,12 +55,14 @@ public class ClamDaemonScanner implements VirusScanner {
     private static final String CONTEXT_PARAM_PORT = "primefaces.virusscan.CLAMAV_PORT";
     private static final String CONTEXT_PARAM_TIMEOUT = "primefaces.virusscan.CLAMAV_TIMEOUT";
     private static final String CONTEXT_PARAM_BUFFER = "primefaces.virusscan.CLAMAV_BUFFER";
+    private static final String CONTEXT_PARAM_MAX_IDLE_CONNECTIONS = "primefaces.virusscan.CLAMAV_MAX_IDLE_CONNECTIONS";
 
     private Lazy<ClamDaemonClient> client = new Lazy<>(() -> {
         String host = ClamDaemonClient.DEFAULT_HOST;
         int port = ClamDaemonClient.DEFAULT_PORT;
         int timeout = ClamDaemonClient.DEFAULT_TIMEOUT;
         int bufferSize = ClamDaemonClient.DEFAULT_BUFFER;
+        int maxIdleConnections = ClamDaemonClient.DEFAULT_MAX_IDLE_CONNECTIONS;
 
         if (FacesContext.getCurrentInstance() != null) {
             ExternalContext ctx = FacesContext.getCurrentInstance().getExternalContext();
@@ -74,9 +78,12 @@ public class ClamDaemonScanner implements VirusScanner {
             if (ctx.getInitParameter(CONTEXT_PARAM_BUFFER) != null) {
                 bufferSize = Integer.parseInt(ctx.getInitParameter(CONTEXT_PARAM_BUFFER));
             }
+            if (ctx.getInitParameter(CONTEXT_PARAM_MAX_IDLE_CONNECTIONS) != null) {
+                maxIdleConnections = Integer.parseInt(ctx.getInitParameter(CONTEXT_PARAM_MAX_IDLE_CONNECTIONS));
+            }
         }
 
-        return new ClamDaemonClient(host, port, timeout, bufferSize);
+        return new ClamDaemonClient(host, port, timeout, bufferSize, maxIdleConnections);
     });
 
     @Override
@@ -94,17 +101,7 @@ public class ClamDaemonScanner implements VirusScanner {
     public void scan(UploadedFile file) {
         try {
             InputStream inputStream = new ByteArrayInputStream(file.getContent());
-            byte[] reply = getClamAvClient().scan(inputStream);
-
-            String message = new String(reply, StandardCharsets.US_ASCII).trim();
-
-            LOGGER.log(Level.INFO, "Scanner replied with message: {0}", message);
-
-            if (!ClamDaemonClient.isCleanReply(reply)) {
-                String error = createErrorMessage(file, message);
-                LOGGER.log(Level.WARNING, "ClamAV Error: {0}", error);
-                throw new VirusException(error);
-            }
+            handleReply(file, getClamAvClient().scan(inputStream));
         }
         catch (VirusException ex) {
             throw ex;
@@ -115,10 +112,49 @@ public class ClamDaemonScanner implements VirusScanner {
         }
     }
 
+    /**
+     * Streams the file to the ClamAV service in the background; the reply is evaluated on the request thread.
+     */
+    @Override
+    public CompletableFuture<Runnable> scanAsync(UploadedFile file, Executor executor) {
+        ClamDaemonClient clamAvClient = getClamAvClient();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                byte[] reply = clamAvClient.scan(new ByteArrayInputStream(file.getContent()));
+                return () -> handleReply(file, reply);
+            }
+            catch (RuntimeException | IOException ex) {
+                String error = String.format("Unexpected error scanning file - %s", ex.getMessage());
+                return () -> {
+                    throw new VirusException(error);
+                };
+            }
+        }, executor);
+    }
+
+    protected void handleReply(UploadedFile file, byte[] reply) {
+        String message = new String(reply, StandardCharsets.US_ASCII).trim();
+
+        LOGGER.log(Level.INFO, "Scanner replied with message: {0}", message);
+
+        if (!ClamDaemonClient.isCleanReply(reply)) {
+            String error = createErrorMessage(file, message);
+            LOGGER.log(Level.WARNING, "ClamAV Error: {0}", error);
+            throw new VirusException(error);
+        }
+    }
+
     protected String createErrorMessage(UploadedFile file, String response) {
         return MessageFactory.getMessage("primefaces.fileupload.CLAM_AV_FILE", file.getFileName(), response);
     }
 
+    @Override
+    public void close() {
+        if (client.isInitialized()) {
+            client.get().close();
+        }
+    }
+
     /**
      * Returns a new ClamAvClient which can be overridden in unit tests.
      *
@@ -35,12 +35,14 @@ import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.fileupload.FileItemFactory;
 
 import org.apache.commons.fileupload.disk.DiskFileItemFactory;
 import org.apache.commons.fileupload.servlet.FileCleanerCleanup;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
 import org.apache.commons.io.FileCleaningTracker;
+import org.primefaces.component.fileupload.FileUploadLimiter;
 import org.primefaces.util.Constants;
 import org.primefaces.webapp.MultipartRequest;
 
@@ -58,6 +60,7 @@ public class FileUploadFilter implements Filter {
     private String uploadDir;
 
     private boolean bypass;
+    private FileUploadLimiter limiter;
 
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
@@ -67,6 +70,7 @@ public class FileUploadFilter implements Filter {
         thresholdSize = filterConfig.getInitParameter(THRESHOLD_SIZE_PARAM);
         fileCountMax = filterConfig.getInitParameter(FILE_COUNT_MAX_PARAM);
         uploadDir = filterConfig.getInitParameter(UPLOAD_DIRECTORY_PARAM);
+        limiter = FileUploadLimiter.getInstance(filterConfig.getServletContext());
 
         if (LOGGER.isLoggable(Level.FINE)) {
             LOGGER.fine("FileUploadFilter initiated successfully");
@@ -78,15 +82,35 @@ public class FileUploadFilter implements Filter {
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain filterChain) throws IOException, ServletException {
-        if (bypass) {
-            filterChain.doFilter(request, response);
-            return;
-        }
-
         HttpServletRequest httpServletRequest = (HttpServletRequest) request;
         boolean isMultipart = ServletFileUpload.isMultipartContent(httpServletRequest);
 
-        if (isMultipart) {
+        // limit concurrent uploads before their body is read, also if uploads are parsed by the container
+        if (isMultipart && limiter.isEnabled()) {
+            if (!limiter.tryAcquire(httpServletRequest, (HttpServletResponse) response)) {
+                return;
+            }
+            try {
+                doFilterMultipart(httpServletRequest, response, filterChain);
+            }
+            finally {
+                limiter.release(httpServletRequest);
+            }
+        }
+        else if (isMultipart) {
+            doFilterMultipart(httpServletRequest, response, filterChain);
+        }
+        else {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    protected void doFilterMultipart(HttpServletRequest httpServletRequest, ServletResponse response, FilterChain filterChain)
+            throws IOException, ServletException {
+        if (bypass) {
+            filterChain.doFilter(httpServletRequest, response);
+        }
+        else {
             if (LOGGER.isLoggable(Level.FINE)) {
                 LOGGER.fine("Parsing file upload request");
             }
@@ -103,9 +127,6 @@ public class FileUploadFilter implements Filter {
 
             filterChain.doFilter(multipartRequest, response);
         }
-        else {
-            filterChain.doFilter(request, response);
-        }
     }
 
     @Override
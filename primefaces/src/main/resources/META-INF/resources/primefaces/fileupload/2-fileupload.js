@@ -330,7 +330,7 @@ PrimeFaces.widget.FileUpload = PrimeFaces.widget.BaseWidget.extend({
                         retries < fu.options.maxRetries) {
                         retries += 1;
                         data.context.data('retries', retries);
-                        window.setTimeout(retry, retries * fu.options.retryTimeout);
+                        window.setTimeout(retry, $this.getRetryDelay(data.jqXHR, retries * fu.options.retryTimeout));
                         return;
                     }
                     data.context.removeData('retries');
@@ -679,6 +679,25 @@ PrimeFaces.widget.FileUpload = PrimeFaces.widget.BaseWidget.extend({
         return [file.name, file.lastModified, file.type, file.size].join();
     },
 
+    /**
+     * Determines how long to wait before retrying a failed chunk. When the server rejected the chunk because too many
+     * uploads are in progress (HTTP 429 or 503), its `Retry-After` hint is used instead of the default delay.
+     * @private
+     * @param {JQuery.jqXHR} jqXHR The XHR object of the failed chunk request.
+     * @param {number} defaultDelay The delay in milliseconds to use if the server did not send a hint.
+     * @return {number} The delay in milliseconds.
+     */
+    getRetryDelay: function(jqXHR, defaultDelay) {
+        if (jqXHR && (jqXHR.status === 429 || jqXHR.status === 503)) {
+            var retryAfter = parseInt(jqXHR.getResponseHeader('Retry-After'), 10);
+            if (!isNaN(retryAfter)) {
+                // spread the retries of the rejected clients, so they don't come back all at once
+                return retryAfter * 1000 + Math.floor(Math.random() * 1000);
+            }
+        }
+        return defaultDelay;
+    },
+
     /**
      * Removes the given uploaded file from this upload widget.
      * @private
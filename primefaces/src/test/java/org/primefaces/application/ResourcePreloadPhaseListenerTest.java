@@ -0,0 +1,47 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.application;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourcePreloadPhaseListenerTest {
+
+    @Test
+    void tomcatEarlyHintsSupported() {
+        assertTrue(ResourcePreloadPhaseListener.isTomcatEarlyHintsSupported("Apache Tomcat/8.5.88"));
+        assertTrue(ResourcePreloadPhaseListener.isTomcatEarlyHintsSupported("Apache Tomcat/9.0.74"));
+        assertTrue(ResourcePreloadPhaseListener.isTomcatEarlyHintsSupported("Apache Tomcat/10.1.8"));
+        assertTrue(ResourcePreloadPhaseListener.isTomcatEarlyHintsSupported("Apache Tomcat/11.0.0-M5"));
+    }
+
+    @Test
+    void tomcatEarlyHintsNotSupported() {
+        assertFalse(ResourcePreloadPhaseListener.isTomcatEarlyHintsSupported(null));
+        assertFalse(ResourcePreloadPhaseListener.isTomcatEarlyHintsSupported("Apache Tomcat/9.0.73"));
+        assertFalse(ResourcePreloadPhaseListener.isTomcatEarlyHintsSupported("Apache Tomcat/10.0.27"));
+        assertFalse(ResourcePreloadPhaseListener.isTomcatEarlyHintsSupported("jetty/9.4.51"));
+        assertFalse(ResourcePreloadPhaseListener.isTomcatEarlyHintsSupported("WildFly Full 26.1.3.Final (WildFly Core 18.1.2.Final) - 2.2.19.Final"));
+    }
+}
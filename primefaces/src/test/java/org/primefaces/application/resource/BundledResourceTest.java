@@ -0,0 +1,67 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.application.resource;
+
+import java.util.Arrays;
+
+import javax.faces.application.Resource;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BundledResourceTest {
+
+    @Test
+    void requestPathExtensionMapping() {
+        Resource first = mock(Resource.class);
+        when(first.getResourceName()).thenReturn("core.js");
+        when(first.getRequestPath()).thenReturn("/app/javax.faces.resource/core.js.xhtml?ln=primefaces&v=14.0.0");
+
+        String path = BundledResource.getRequestPath(first, BundledResource.SCRIPT_BUNDLE, Arrays.asList("core.js", "components.js"));
+
+        assertEquals("/app/javax.faces.resource/bundle.js.xhtml?ln=primefaces&v=14.0.0&pfrb=core.js%2Ccomponents.js", path);
+    }
+
+    @Test
+    void requestPathPrefixMapping() {
+        Resource first = mock(Resource.class);
+        when(first.getResourceName()).thenReturn("components.css");
+        when(first.getRequestPath()).thenReturn("/app/faces/javax.faces.resource/components.css?ln=primefaces");
+
+        String path = BundledResource.getRequestPath(first, BundledResource.STYLESHEET_BUNDLE,
+                Arrays.asList("components.css", "dock/dock.css"));
+
+        assertEquals("/app/faces/javax.faces.resource/bundle.css?ln=primefaces&pfrb=components.css%2Cdock%2Fdock.css", path);
+    }
+
+    @Test
+    void requestPathUnknownFormat() {
+        Resource first = mock(Resource.class);
+        when(first.getResourceName()).thenReturn("core.js");
+        when(first.getRequestPath()).thenReturn("/app/portlet?javax.faces.resource=core.js&ln=primefaces");
+
+        assertNull(BundledResource.getRequestPath(first, BundledResource.SCRIPT_BUNDLE, Arrays.asList("core.js", "components.js")));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.application.resource;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteRangeTest {
+
+    @Test
+    void closedRange() {
+        ByteRange range = ByteRange.parse("bytes=0-499", 1000);
+
+        assertEquals(0, range.getStart());
+        assertEquals(499, range.getEnd());
+        assertEquals(500, range.getLength());
+        assertEquals("bytes 0-499/1000", range.toContentRange(1000));
+    }
+
+    @Test
+    void openRange() {
+        ByteRange range = ByteRange.parse("bytes=900-", 1000);
+
+        assertEquals(900, range.getStart());
+        assertEquals(999, range.getEnd());
+    }
+
+    @Test
+    void suffixRange() {
+        ByteRange range = ByteRange.parse("bytes=-100", 1000);
+
+        assertEquals(900, range.getStart());
+        assertEquals(999, range.getEnd());
+
+        range = ByteRange.parse("bytes=-5000", 1000);
+        assertEquals(0, range.getStart());
+        assertEquals(1000, range.getLength());
+    }
+
+    @Test
+    void endBeyondLength() {
+        ByteRange range = ByteRange.parse("bytes=500-5000", 1000);
+
+        assertEquals(500, range.getStart());
+        assertEquals(999, range.getEnd());
+    }
+
+    @Test
+    void unsatisfiable() {
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=1000-", 1000));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-0", 1000));
+        assertEquals("bytes */1000", ByteRange.UNSATISFIABLE.toContentRange(1000));
+    }
+
+    @Test
+    void ignored() {
+        assertNull(ByteRange.parse(null, 1000));
+        assertNull(ByteRange.parse("", 1000));
+        assertNull(ByteRange.parse("items=0-1", 1000));
+        assertNull(ByteRange.parse("bytes=0-1,5-6", 1000));
+        assertNull(ByteRange.parse("bytes=5-1", 1000));
+        assertNull(ByteRange.parse("bytes=a-b", 1000));
+        assertNull(ByteRange.parse("bytes=-", 1000));
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.application.resource;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageResizeTest {
+
+    private static byte[] createImage(int width, int height, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void parse() {
+        assertNull(ImageResize.of(null));
+        assertNull(ImageResize.of("0_0_"));
+        assertEquals("200_0_", ImageResize.of("200").toParam());
+        assertEquals("200_150_0.8", new ImageResize(200, 150, 0.8f).toParam());
+    }
+
+    @Test
+    void keepsAspectRatio() throws IOException {
+        BufferedContent content = new ImageResize(100, 100, null).apply(createImage(1600, 1200, "png"), "image/png");
+
+        BufferedImage resized = ImageIO.read(new ByteArrayInputStream(content.getBytes()));
+        assertEquals("image/png", content.getContentType());
+        assertEquals(100, resized.getWidth());
+        assertEquals(75, resized.getHeight());
+    }
+
+    @Test
+    void jpegWithQuality() throws IOException {
+        BufferedContent content = new ImageResize(0, 60, 0.5f).apply(createImage(400, 300, "jpg"), "image/jpeg");
+
+        BufferedImage resized = ImageIO.read(new ByteArrayInputStream(content.getBytes()));
+        assertEquals("image/jpeg", content.getContentType());
+        assertEquals(80, resized.getWidth());
+        assertEquals(60, resized.getHeight());
+    }
+
+    @Test
+    void unchanged() throws IOException {
+        byte[] small = createImage(50, 50, "png");
+        assertSame(small, new ImageResize(100, 100, null).apply(small, "image/png").getBytes());
+
+        byte[] svg = "<svg xmlns=\"http://www.w3.org/2000/svg\"/>".getBytes(StandardCharsets.UTF_8);
+        BufferedContent content = new ImageResize(100, 100, null).apply(svg, "image/svg+xml");
+        assertSame(svg, content.getBytes());
+        assertEquals("image/svg+xml", content.getContentType());
+    }
+}
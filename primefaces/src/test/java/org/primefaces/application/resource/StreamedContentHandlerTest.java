@@ -0,0 +1,176 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.application.resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import javax.faces.context.ExternalContext;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.primefaces.model.DefaultStreamedContent;
+import org.primefaces.model.StreamedContent;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StreamedContentHandlerTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+    private static final long LAST_MODIFIED = 1700000000000L;
+    private static final String LAST_MODIFIED_HTTP = "Tue, 14 Nov 2023 22:13:20 GMT";
+
+    private StreamedContentHandler handler;
+    private ExternalContext externalContext;
+    private Map<String, String> requestHeaders;
+    private ByteArrayOutputStream response;
+
+    @BeforeEach
+    void setup() throws IOException {
+        handler = new StreamedContentHandler();
+        externalContext = mock(ExternalContext.class);
+        requestHeaders = new HashMap<>();
+        response = new ByteArrayOutputStream();
+        when(externalContext.getRequestHeaderMap()).thenReturn(requestHeaders);
+        when(externalContext.getResponseOutputStream()).thenReturn(response);
+    }
+
+    @Test
+    void ifNoneMatch() {
+        requestHeaders.put("If-None-Match", "\"a\", W/\"v1\"");
+
+        assertTrue(handler.isNotModified(externalContext, "v1", null));
+        assertTrue(handler.isNotModified(externalContext, "\"a\"", null));
+        assertFalse(handler.isNotModified(externalContext, "v2", null));
+        // If-Modified-Since is ignored when If-None-Match is present
+        requestHeaders.put("If-Modified-Since", LAST_MODIFIED_HTTP);
+        assertFalse(handler.isNotModified(externalContext, "v2", LAST_MODIFIED));
+    }
+
+    @Test
+    void ifModifiedSince() {
+        requestHeaders.put("If-Modified-Since", LAST_MODIFIED_HTTP);
+
+        assertTrue(handler.isNotModified(externalContext, null, LAST_MODIFIED + 500));
+        assertFalse(handler.isNotModified(externalContext, null, LAST_MODIFIED + 1000));
+        assertFalse(handler.isNotModified(externalContext, null, null));
+    }
+
+    @Test
+    void validators() {
+        handler.handleValidators(externalContext, "v1", LAST_MODIFIED);
+
+        verify(externalContext).setResponseHeader("ETag", "\"v1\"");
+        verify(externalContext).setResponseHeader("Last-Modified", LAST_MODIFIED_HTTP);
+    }
+
+    @Test
+    void ifRange() {
+        assertTrue(handler.isIfRangeSatisfied("\"v1\"", "v1", null));
+        assertFalse(handler.isIfRangeSatisfied("W/\"v1\"", "v1", null));
+        assertFalse(handler.isIfRangeSatisfied("\"v2\"", "v1", null));
+        assertTrue(handler.isIfRangeSatisfied(LAST_MODIFIED_HTTP, null, LAST_MODIFIED));
+        assertFalse(handler.isIfRangeSatisfied(LAST_MODIFIED_HTTP, null, LAST_MODIFIED + 1000));
+    }
+
+    @Test
+    void streamRange() throws IOException {
+        requestHeaders.put("Range", "bytes=2-5");
+
+        stream(content("v1"));
+
+        verify(externalContext).setResponseStatus(206);
+        verify(externalContext).setResponseHeader("Content-Range", "bytes 2-5/10");
+        verify(externalContext).setResponseHeader("Content-Length", "4");
+        assertEquals("2345", response.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void streamOutdatedIfRange() throws IOException {
+        requestHeaders.put("Range", "bytes=2-5");
+        requestHeaders.put("If-Range", "\"v0\"");
+
+        stream(content("v1"));
+
+        verify(externalContext).setResponseStatus(200);
+        assertEquals("0123456789", response.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void streamChannelRange(@TempDir Path tempDir) throws IOException {
+        requestHeaders.put("Range", "bytes=-3");
+        Path file = Files.write(tempDir.resolve("content.txt"), CONTENT);
+
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            handler.stream(externalContext, content("v1"), channel, false);
+        }
+
+        verify(externalContext).setResponseStatus(206);
+        verify(externalContext).setResponseHeader("Content-Range", "bytes 7-9/10");
+        assertEquals("789", response.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void sendFile(@TempDir Path tempDir) throws IOException {
+        Map<String, Object> requestMap = new HashMap<>();
+        requestMap.put("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        when(externalContext.getRequestMap()).thenReturn(requestMap);
+        requestHeaders.put("Range", "bytes=4-");
+        Path file = Files.write(tempDir.resolve("content.txt"), CONTENT);
+        StreamedContent content = DefaultStreamedContent.builder().path(file).build();
+
+        assertEquals(CONTENT.length, content.getContentLength());
+        assertTrue(handler.isSendFileSupported(externalContext));
+        handler.sendFile(externalContext, content, false);
+
+        verify(externalContext).setResponseStatus(206);
+        assertEquals(file.toRealPath().toString(), requestMap.get("org.apache.tomcat.sendfile.filename"));
+        assertEquals(4L, requestMap.get("org.apache.tomcat.sendfile.start"));
+        assertEquals(10L, requestMap.get("org.apache.tomcat.sendfile.end"));
+        assertEquals(0, response.size());
+    }
+
+    private void stream(StreamedContent content) throws IOException {
+        try (InputStream is = content.getStream().get()) {
+            handler.stream(externalContext, content, is, false);
+        }
+    }
+
+    private static StreamedContent content(String eTag) {
+        return DefaultStreamedContent.builder()
+                .stream(() -> new ByteArrayInputStream(CONTENT))
+                .contentLength((long) CONTENT.length)
+                .eTag(eTag)
+                .build();
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.cache;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultCacheProviderTest {
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        DefaultCacheProvider provider = new DefaultCacheProvider(2, 0);
+        provider.put("region", "a", "A");
+        provider.put("region", "b", "B");
+        assertEquals("A", provider.get("region", "a"));
+
+        provider.put("region", "c", "C");
+
+        assertEquals("A", provider.get("region", "a"));
+        assertNull(provider.get("region", "b"));
+        assertEquals("C", provider.get("region", "c"));
+
+        CacheStatistics statistics = provider.getStatistics("region");
+        assertEquals(3, statistics.getHitCount());
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(1, statistics.getEvictionCount());
+        assertEquals(2, statistics.getSize());
+    }
+
+    @Test
+    void limitsRegionsIndividually() {
+        DefaultCacheProvider provider = new DefaultCacheProvider(2, 0);
+        provider.setMaxSize("large", 100);
+        for (int i = 0; i < 100; i++) {
+            provider.put("large", "key" + i, i);
+            provider.put("small", "key" + i, i);
+        }
+
+        assertEquals(100, provider.getStatistics("large").getSize());
+        assertEquals(0, provider.getStatistics("large").getEvictionCount());
+        assertEquals(2, provider.getStatistics("small").getSize());
+
+        provider.setMaxSize("large", 10);
+        assertEquals(10, provider.getMaxSize("large"));
+        assertTrue(provider.getStatistics("large").getSize() <= 10);
+        assertEquals(99, provider.get("large", "key99"));
+    }
+
+    @Test
+    void expiresEntries() {
+        long[] now = {1000};
+        DefaultCacheProvider provider = new DefaultCacheProvider(10, 500) {
+            @Override
+            protected long currentTimeMillis() {
+                return now[0];
+            }
+        };
+        provider.put("region", "a", "A");
+
+        now[0] = 1499;
+        assertEquals("A", provider.get("region", "a"));
+
+        now[0] = 1500;
+        assertNull(provider.get("region", "a"));
+        assertEquals(0, provider.getStatistics("region").getSize());
+        assertEquals(1, provider.getStatistics("region").getEvictionCount());
+    }
+
+    @Test
+    void regionsAreIndependent() {
+        DefaultCacheProvider provider = new DefaultCacheProvider();
+        provider.put("first", "key", "1");
+        provider.put("second", "key", "2");
+        provider.remove("first", "key");
+
+        assertNull(provider.get("first", "key"));
+        assertEquals("2", provider.get("second", "key"));
+        assertNull(provider.getStatistics("third"));
+
+        provider.clear();
+        assertNull(provider.get("second", "key"));
+    }
+
+    @Test
+    void expiresEntriesWithTimeToLivePerPut() {
+        long[] now = {1000};
+        DefaultCacheProvider provider = new DefaultCacheProvider(10, 0) {
+            @Override
+            protected long currentTimeMillis() {
+                return now[0];
+            }
+        };
+        provider.put("region", "a", "A", 100);
+        provider.put("region", "b", "B");
+
+        now[0] = 1100;
+        assertNull(provider.get("region", "a"));
+        assertEquals("B", provider.get("region", "b"));
+    }
+
+    @Test
+    void invalidatesTags() {
+        DefaultCacheProvider provider = new DefaultCacheProvider();
+        provider.put("region", "a", "A", 0, "product:42");
+        provider.put("region", "b", "B", 0, "product:42", "product:43");
+        provider.put("region", "c", "C", 0, "product:43");
+
+        provider.invalidateTag("product:42");
+
+        assertNull(provider.get("region", "a"));
+        assertNull(provider.get("region", "b"));
+        assertEquals("C", provider.get("region", "c"));
+
+        provider.put("region", "a", "A2", 0, "product:42");
+        assertEquals("A2", provider.get("region", "a"));
+    }
+
+    @Test
+    void treatsEvictedTagVersionAsInvalidated() {
+        DefaultCacheProvider provider = new DefaultCacheProvider();
+        provider.put("region", "a", "A", 0, "product:42");
+
+        provider.remove(CacheTags.VERSIONS_REGION, "product:42");
+
+        assertNull(provider.get("region", "a"));
+    }
+
+    @Test
+    void keepsInvalidationDuringComputation() {
+        DefaultCacheProvider provider = new DefaultCacheProvider();
+
+        Object computed = provider.computeIfAbsent("region", "a", 0, () -> {
+            // e.g. the product has been updated while the stale value was loaded
+            provider.invalidateTag("product:42");
+            return "A";
+        }, "product:42");
+
+        assertEquals("A", computed);
+        assertNull(provider.get("region", "a"));
+        assertEquals("A2", provider.computeIfAbsent("region", "a", 0, () -> "A2", "product:42"));
+        assertEquals("A2", provider.get("region", "a"));
+    }
+
+    @Test
+    void computesMissingEntryOnce() throws Exception {
+        DefaultCacheProvider provider = new DefaultCacheProvider();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> first = executor.submit(() -> provider.computeIfAbsent("region", "key", () -> {
+                computations.incrementAndGet();
+                computing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "value";
+            }));
+            assertTrue(computing.await(5, TimeUnit.SECONDS));
+            Future<Object> second = executor.submit(() -> provider.computeIfAbsent("region", "key", () -> {
+                computations.incrementAndGet();
+                return "other";
+            }));
+            release.countDown();
+
+            assertEquals("value", first.get(5, TimeUnit.SECONDS));
+            assertEquals("value", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, computations.get());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void computesNestedEntryWithoutDeadlock() {
+        DefaultCacheProvider provider = new DefaultCacheProvider();
+
+        Object value = provider.computeIfAbsent("region", "key", () -> "outer" + provider.computeIfAbsent("region", "key", () -> "inner"));
+
+        assertEquals("outerinner", value);
+    }
+}
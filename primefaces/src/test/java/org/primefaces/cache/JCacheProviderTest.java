@@ -0,0 +1,87 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.cache;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.expiry.EternalExpiryPolicy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JCacheProviderTest {
+
+    private CacheManager cacheManager;
+    private JCacheProvider provider;
+
+    @BeforeEach
+    void setup() {
+        cacheManager = Caching.getCachingProvider().getCacheManager();
+        provider = new JCacheProvider(cacheManager, EternalExpiryPolicy.factoryOf(), true);
+    }
+
+    @AfterEach
+    void teardown() {
+        for (String cacheName : cacheManager.getCacheNames()) {
+            cacheManager.destroyCache(cacheName);
+        }
+    }
+
+    @Test
+    void putGetRemove() {
+        provider.put("region", "a", "A");
+
+        assertEquals("A", provider.get("region", "a"));
+        assertNull(provider.get("region", "b"));
+
+        provider.remove("region", "a");
+        assertNull(provider.get("region", "a"));
+
+        CacheStatistics statistics = provider.getStatistics("region");
+        assertNotNull(statistics);
+        assertEquals(1, statistics.getHitCount());
+        assertEquals(2, statistics.getMissCount());
+    }
+
+    @Test
+    void tagsAndClear() {
+        provider.put("first", "a", "A", 0, "product:42");
+        provider.put("second", "b", "B");
+
+        provider.invalidateTag("product:42");
+        assertNull(provider.get("first", "a"));
+        assertEquals("B", provider.get("second", "b"));
+
+        provider.clear();
+        assertNull(provider.get("second", "b"));
+    }
+
+    @Test
+    void computeIfAbsent() {
+        assertEquals("A", provider.computeIfAbsent("region", "a", () -> "A"));
+        assertEquals("A", provider.computeIfAbsent("region", "a", () -> "other"));
+    }
+}
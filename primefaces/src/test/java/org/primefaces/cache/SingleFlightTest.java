@@ -0,0 +1,78 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.cache;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void waitTimesOut() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> leader = executor.submit(() -> singleFlight.execute("region", "key", 0, () -> {
+                computing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "value";
+            }));
+            assertTrue(computing.await(5, TimeUnit.SECONDS));
+            assertTrue(singleFlight.isInFlight("region", "key"));
+
+            assertNull(singleFlight.execute("region", "key", 50, () -> "other"));
+
+            release.countDown();
+            assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+            assertFalse(singleFlight.isInFlight("region", "key"));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void propagatesException() {
+        SingleFlight singleFlight = new SingleFlight();
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("region", "key", 0, () -> {
+            throw new IllegalStateException();
+        }));
+        assertFalse(singleFlight.isInFlight("region", "key"));
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.component.cache;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.Arrays;
+import javax.faces.FacesException;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedFragmentTest {
+
+    @Test
+    void bytes() {
+        CachedFragment fragment = CachedFragment.ofBytes("<span>Zürich</span>", Long.MAX_VALUE, false);
+
+        assertEquals("<span>Zürich</span>", fragment.getOutput());
+        assertFalse(fragment.isExpired(System.currentTimeMillis()));
+    }
+
+    @Test
+    void deflated() {
+        StringBuilder html = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            html.append("<tr><td>Row ").append(i).append(" – ünïcode</td></tr>");
+        }
+
+        CachedFragment fragment = CachedFragment.ofBytes(html.toString(), 1000, true);
+
+        assertEquals(html.toString(), fragment.getOutput());
+        assertTrue(fragment.isExpired(1000));
+    }
+
+    @Test
+    void truncated() throws Exception {
+        StringBuilder html = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            html.append("<tr><td>Row ").append(i).append("</td></tr>");
+        }
+        CachedFragment fragment = CachedFragment.ofBytes(html.toString(), Long.MAX_VALUE, true);
+
+        // e.g. cut off by a provider serializing the entries
+        Field bytes = CachedFragment.class.getDeclaredField("bytes");
+        bytes.setAccessible(true);
+        byte[] deflated = (byte[]) bytes.get(fragment);
+        bytes.set(fragment, Arrays.copyOf(deflated, deflated.length / 2));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThrows(FacesException.class, fragment::getOutput));
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.component.fileupload;
+
+import org.primefaces.context.PrimeApplicationContext;
+import org.primefaces.model.file.NIOUploadedFile;
+import org.primefaces.model.file.UploadedFile;
+import org.primefaces.model.file.UploadedFileWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AbstractFileUploadDecoderTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    @TempDir
+    Path uploadDir;
+
+    private NativeFileUploadDecoder decoder;
+    private HttpServletRequest request;
+    private Path chunksDir;
+
+    @BeforeEach
+    void setup() {
+        decoder = new NativeFileUploadDecoder();
+
+        ServletContext servletContext = mock(ServletContext.class);
+        when(servletContext.getAttribute(ServletContext.TEMPDIR)).thenReturn(uploadDir.toFile());
+        PrimeApplicationContext applicationContext = mock(PrimeApplicationContext.class);
+        when(applicationContext.getFileUploadDecoder()).thenReturn(decoder);
+        when(servletContext.getAttribute(PrimeApplicationContext.INSTANCE_KEY)).thenReturn(applicationContext);
+        request = mock(HttpServletRequest.class);
+        when(request.getServletContext()).thenReturn(servletContext);
+        when(request.getParameter("X-File-Id")).thenReturn("file1");
+        when(request.getAttributeNames()).thenReturn(Collections.emptyEnumeration());
+
+        chunksDir = uploadDir.resolve(decoder.generateFileInfoKey(request));
+    }
+
+    @Test
+    void writeChunksAtTheirPosition() throws IOException {
+        assertEquals(8, writeChunk(0, 7));
+        // received behind a gap, does not count yet
+        assertEquals(8, writeChunk(16, 19));
+        assertEquals(20, writeChunk(8, 15));
+        // sent again after a lost response
+        assertEquals(20, writeChunk(16, 19));
+
+        assertEquals(CONTENT, new String(Files.readAllBytes(chunksDir.resolve(AbstractFileUploadDecoder.ASSEMBLY_FILE)),
+                StandardCharsets.US_ASCII));
+
+        UploadedFile file = decoder.processLastChunk(request, chunk(16, 19), chunksDir, range(16, 19), null);
+
+        assertEquals(CONTENT, new String(file.getContent(), StandardCharsets.US_ASCII));
+        assertFalse(Files.exists(chunksDir));
+    }
+
+    @Test
+    void incompleteUploadIsRejected() throws IOException {
+        writeChunk(0, 7);
+        writeChunk(16, 19);
+
+        assertThrows(IOException.class, () -> decoder.processLastChunk(request, chunk(16, 19), chunksDir, range(16, 19), null));
+        assertFalse(Files.exists(chunksDir));
+    }
+
+    @Test
+    void resumeChunkFiles() throws IOException {
+        Files.createDirectories(chunksDir);
+        Files.write(chunksDir.resolve("0"), CONTENT.substring(0, 8).getBytes(StandardCharsets.US_ASCII));
+        Files.write(chunksDir.resolve("1"), CONTENT.substring(8, 10).getBytes(StandardCharsets.US_ASCII));
+
+        decoder.migrateChunkFiles(chunksDir);
+
+        assertEquals(10, decoder.decodeUploadedBytes(request));
+        assertEquals(20, writeChunk(10, 19));
+        UploadedFile file = decoder.processLastChunk(request, chunk(10, 19), chunksDir, range(10, 19), null);
+
+        assertEquals(CONTENT, new String(file.getContent(), StandardCharsets.US_ASCII));
+        assertFalse(Files.exists(chunksDir));
+    }
+
+    @Test
+    void concurrentChunks() throws Exception {
+        FileUpload fileUpload = mock(FileUpload.class);
+        when(fileUpload.getMaxChunkSize()).thenReturn(4L);
+        when(fileUpload.getSizeLimit()).thenReturn(null);
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int begin = 16; begin >= 0; begin -= 4) {
+                HttpServletRequest chunkRequest = request("bytes " + begin + "-" + (begin + 3) + "/" + CONTENT.length());
+                UploadedFile chunk = chunk(begin, begin + 3);
+                futures.add(executor.submit(() -> {
+                    decoder.decodeContentRange(fileUpload, chunkRequest, chunk);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        ArgumentCaptor<UploadedFileWrapper> submittedValue = ArgumentCaptor.forClass(UploadedFileWrapper.class);
+        verify(fileUpload, times(1)).setSubmittedValue(submittedValue.capture());
+        assertEquals(CONTENT, new String(submittedValue.getValue().getWrapped().getContent(), StandardCharsets.US_ASCII));
+        assertFalse(Files.exists(chunksDir));
+    }
+
+    private long writeChunk(int begin, int end) throws IOException {
+        decoder.writeChunk(chunk(begin, end), chunksDir, range(begin, end));
+        return decoder.addRange(chunksDir, range(begin, end));
+    }
+
+    private HttpServletRequest request(String contentRange) {
+        HttpServletRequest chunkRequest = mock(HttpServletRequest.class);
+        ServletContext servletContext = request.getServletContext();
+        when(chunkRequest.getServletContext()).thenReturn(servletContext);
+        when(chunkRequest.getParameter("X-File-Id")).thenReturn("file1");
+        when(chunkRequest.getAttributeNames()).thenReturn(Collections.emptyEnumeration());
+        when(chunkRequest.getHeader("Content-Range")).thenReturn(contentRange);
+        return chunkRequest;
+    }
+
+    private UploadedFile chunk(int begin, int end) throws IOException {
+        Path chunk = Files.createTempFile(uploadDir, "chunk", null);
+        Files.write(chunk, Arrays.copyOfRange(CONTENT.getBytes(StandardCharsets.US_ASCII), begin, end + 1));
+        return new NIOUploadedFile(chunk, "test.txt", "text/plain", null, null);
+    }
+
+    private static ContentRange range(int begin, int end) {
+        return ContentRange.of("bytes " + begin + "-" + end + "/" + CONTENT.length(), 8);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.component.fileupload;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileUploadChunkSweeperTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private Path createChunkDir(String name, int size, long age) throws IOException {
+        Path dir = Files.createDirectory(uploadDir.resolve(name));
+        Path assembly = Files.write(dir.resolve(AbstractFileUploadDecoder.ASSEMBLY_FILE), new byte[size]);
+        Path ranges = Files.write(dir.resolve(AbstractFileUploadDecoder.RANGES_FILE), ("0-" + (size - 1) + "\n").getBytes());
+        Path marker = Files.createFile(dir.resolve(AbstractFileUploadDecoder.MARKER_FILE));
+        FileTime time = FileTime.fromMillis(System.currentTimeMillis() - age);
+        Files.setLastModifiedTime(assembly, time);
+        Files.setLastModifiedTime(ranges, time);
+        Files.setLastModifiedTime(marker, time);
+        Files.setLastModifiedTime(dir, time);
+        return dir;
+    }
+
+    @Test
+    void removesExpired() throws IOException {
+        Path expired = createChunkDir("-123", 10, TimeUnit.HOURS.toMillis(2));
+        Path active = createChunkDir("456", 10, 0);
+        // not a chunk directory, must not be touched
+        Path other = Files.createDirectory(uploadDir.resolve("789"));
+        Files.write(other.resolve("data.txt"), new byte[10]);
+        Files.setLastModifiedTime(other, FileTime.fromMillis(0));
+        // looks like a chunk directory, but has not been created by PrimeFaces
+        Path foreign = Files.createDirectory(uploadDir.resolve("1011"));
+        Files.write(foreign.resolve(AbstractFileUploadDecoder.ASSEMBLY_FILE), new byte[10]);
+        Files.setLastModifiedTime(foreign.resolve(AbstractFileUploadDecoder.ASSEMBLY_FILE), FileTime.fromMillis(0));
+        Files.setLastModifiedTime(foreign, FileTime.fromMillis(0));
+
+        FileUploadChunkSweeper sweeper = new FileUploadChunkSweeper(TimeUnit.HOURS.toMillis(1), 0);
+        sweeper.register(uploadDir);
+        try {
+            sweeper.sweep();
+        }
+        finally {
+            sweeper.shutdown();
+        }
+
+        assertFalse(Files.exists(expired));
+        assertTrue(Files.exists(active));
+        assertTrue(Files.exists(other));
+        assertTrue(Files.exists(foreign));
+        assertEquals(1, sweeper.getSweptDirectories());
+        assertEquals(10 + "0-9\n".length(), sweeper.getSweptBytes());
+        assertEquals(1, sweeper.getPendingDirectories());
+    }
+
+    @Test
+    void evictsOldestOverQuota() throws IOException {
+        Path oldest = createChunkDir("1", 1000, 3000);
+        Path older = createChunkDir("2", 1000, 2000);
+        Path newest = createChunkDir("3", 1000, 1000);
+
+        FileUploadChunkSweeper sweeper = new FileUploadChunkSweeper(0, 2500);
+        sweeper.register(uploadDir);
+        try {
+            sweeper.sweep();
+        }
+        finally {
+            sweeper.shutdown();
+        }
+
+        assertFalse(Files.exists(oldest));
+        assertTrue(Files.exists(older));
+        assertTrue(Files.exists(newest));
+        assertTrue(sweeper.getPendingBytes() <= 2500);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.component.fileupload;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class FileUploadLimiterTest {
+
+    private HttpServletRequest createRequest(String sessionId, long contentLength) {
+        Map<String, Object> attributes = new HashMap<>();
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpSession session = mock(HttpSession.class);
+        when(session.getId()).thenReturn(sessionId);
+        when(request.getSession(false)).thenReturn(session);
+        when(request.getContentLengthLong()).thenReturn(contentLength);
+        when(request.getAttribute(anyString())).thenAnswer(i -> attributes.get(i.getArgument(0, String.class)));
+        doAnswer(i -> attributes.put(i.getArgument(0), i.getArgument(1))).when(request).setAttribute(anyString(), any());
+        doAnswer(i -> attributes.remove(i.getArgument(0, String.class))).when(request).removeAttribute(anyString());
+        return request;
+    }
+
+    @Test
+    void concurrentPerSession() throws IOException {
+        FileUploadLimiter limiter = new FileUploadLimiter(0, 1, 0);
+        HttpServletRequest first = createRequest("A", 100);
+        HttpServletRequest second = createRequest("A", 100);
+        HttpServletRequest other = createRequest("B", 100);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        assertTrue(limiter.tryAcquire(first, response));
+        // the phase listener acquires again for the request admitted by the filter, without charging it twice
+        assertTrue(limiter.tryAcquire(first, response));
+        assertFalse(limiter.tryAcquire(second, response));
+        verify(response).setHeader("Retry-After", "1");
+        verify(response).sendError(FileUploadLimiter.SC_TOO_MANY_REQUESTS);
+        assertTrue(limiter.tryAcquire(other, response));
+
+        limiter.release(first);
+        limiter.release(first);
+        assertTrue(limiter.tryAcquire(second, response));
+        assertFalse(limiter.tryAcquire(createRequest("A", 100), mock(HttpServletResponse.class)));
+    }
+
+    @Test
+    void concurrentGlobal() throws IOException {
+        FileUploadLimiter limiter = new FileUploadLimiter(1, 0, 0);
+        HttpServletRequest first = createRequest("A", 100);
+        HttpServletRequest second = createRequest("B", 100);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        assertTrue(limiter.tryAcquire(first, response));
+        assertFalse(limiter.tryAcquire(second, response));
+        verify(response).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+
+        limiter.release(first);
+        assertTrue(limiter.tryAcquire(second, response));
+    }
+
+    @Test
+    void bytesPerSecond() throws IOException {
+        FileUploadLimiter limiter = new FileUploadLimiter(0, 0, 1000);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        // a request larger than the budget is admitted, but the following ones have to wait until it has been paid off
+        assertTrue(limiter.tryAcquire(createRequest("A", 3500), response));
+        assertFalse(limiter.tryAcquire(createRequest("B", 100), response));
+        verify(response).setHeader(eq("Retry-After"), argThat(v -> Integer.parseInt(v) >= 2 && Integer.parseInt(v) <= 3));
+        verify(response).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void bytesPerSecondAfterIdle() throws IOException {
+        AtomicLong clock = new AtomicLong();
+        FileUploadLimiter limiter = new FileUploadLimiter(0, 0, 100_000_000) {
+            @Override
+            protected long nanoTime() {
+                return clock.get();
+            }
+        };
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        // leaves the budget negative
+        assertTrue(limiter.tryAcquire(createRequest("A", 500_000_000), response));
+        assertFalse(limiter.tryAcquire(createRequest("B", 100), response));
+
+        // elapsed nanos times bytes per second exceed Long.MAX_VALUE
+        clock.set(TimeUnit.MINUTES.toNanos(2));
+        assertTrue(limiter.tryAcquire(createRequest("B", 100), response));
+    }
+}
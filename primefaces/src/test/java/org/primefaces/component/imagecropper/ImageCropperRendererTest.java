@@ -30,6 +30,7 @@ import javax.imageio.ImageIO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -41,6 +42,7 @@ import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 
+import org.primefaces.model.CroppedImage;
 import org.primefaces.model.DefaultStreamedContent;
 import org.primefaces.model.StreamedContent;
 
@@ -89,6 +91,33 @@ class ImageCropperRendererTest {
         assertNotNull(value);
     }
 
+    @Test
+    void cropRegionWithMaxOutputSize() throws Exception {
+        BufferedImage image = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(100, 50, 0xFF0000);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", os);
+
+        ImageCropper cropper = new ImageCropper();
+        cropper.setImage(DefaultStreamedContent.builder().contentType("image/png").name("test.png")
+                .stream(() -> new ByteArrayInputStream(os.toByteArray())).build());
+        ImageCropperRenderer renderer = new ImageCropperRenderer();
+
+        CroppedImage cropped = (CroppedImage) renderer.getConvertedValue(context, cropper, "100_50_200_400");
+        BufferedImage result = ImageIO.read(new ByteArrayInputStream(cropped.getBytes()));
+        // clamped to the bounds of the image
+        assertEquals(200, result.getWidth());
+        assertEquals(250, result.getHeight());
+        assertEquals(0xFF0000, result.getRGB(0, 0) & 0xFFFFFF);
+
+        cropper.setMaxOutputSize("50,50");
+        cropped = (CroppedImage) renderer.getConvertedValue(context, cropper, "100_50_200_100");
+        result = ImageIO.read(new ByteArrayInputStream(cropped.getBytes()));
+        assertEquals(50, result.getWidth());
+        assertEquals(25, result.getHeight());
+        assertEquals(200, cropped.getWidth());
+    }
+
     @Test
     void checkImageAndStreamAreNull() {
         ImageCropper cropper = new ImageCropper();
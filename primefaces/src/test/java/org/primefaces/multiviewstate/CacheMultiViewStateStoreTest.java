@@ -0,0 +1,154 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.multiviewstate;
+
+import org.primefaces.cache.CacheProvider;
+import org.primefaces.cache.DefaultCacheProvider;
+import org.primefaces.component.datatable.DataTableState;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CacheMultiViewStateStoreTest {
+
+    private CacheProvider cacheProvider;
+    private CacheMultiViewStateStore store;
+    private FacesContext context;
+    private Map<String, Object> requestMap;
+
+    @BeforeEach
+    void setup() {
+        cacheProvider = new DefaultCacheProvider();
+        store = new CacheMultiViewStateStore(() -> cacheProvider);
+        requestMap = new HashMap<>();
+
+        ExternalContext externalContext = mock(ExternalContext.class);
+        when(externalContext.getRequestMap()).thenReturn(requestMap);
+        when(externalContext.getSessionId(false)).thenReturn("session1");
+        when(externalContext.getSessionId(true)).thenReturn("session1");
+        when(externalContext.getSessionMaxInactiveInterval()).thenReturn(1800);
+
+        context = mock(FacesContext.class);
+        when(context.getExternalContext()).thenReturn(externalContext);
+    }
+
+    @Test
+    void serializationRoundTrip() throws Exception {
+        Map<MultiViewStateKey, byte[]> states = new HashMap<>();
+        DataTableState tableState = new DataTableState();
+        tableState.setFirst(20);
+        tableState.setRows(10);
+        states.put(MultiViewStateKey.of("/index.xhtml", "form:table"), CacheMultiViewStateStore.serializeState(tableState));
+        states.put(MultiViewStateKey.of("/other.xhtml", "form:tabs"), CacheMultiViewStateStore.serializeState("1"));
+
+        Map<MultiViewStateKey, byte[]> restored = CacheMultiViewStateStore.deserialize(CacheMultiViewStateStore.serialize(states));
+
+        assertEquals(2, restored.size());
+        assertEquals("1", CacheMultiViewStateStore.deserializeState(restored.get(MultiViewStateKey.of("/other.xhtml", "form:tabs"))));
+        DataTableState restoredTableState = (DataTableState) CacheMultiViewStateStore.deserializeState(
+                restored.get(MultiViewStateKey.of("/index.xhtml", "form:table")));
+        assertEquals(20, restoredTableState.getFirst());
+        assertEquals(10, restoredTableState.getRows());
+    }
+
+    @Test
+    void corruptStateIsDiscarded() {
+        assertTrue(CacheMultiViewStateStore.deserialize(new byte[] {1, 2, 3}).isEmpty());
+    }
+
+    @Test
+    void statesAreFlushedToCache() {
+        assertTrue(store.getStates(context, false).isEmpty());
+        assertNull(cacheProvider.get(CacheMultiViewStateStore.REGION, "session1"));
+
+        DataTableState tableState = new DataTableState();
+        store.getStates(context, true).put(MultiViewStateKey.of("/index.xhtml", "form:table"), tableState);
+        // mutated in place after being obtained, like the components do
+        tableState.setFirst(30);
+        store.flush(context);
+
+        assertTrue(requestMap.isEmpty());
+        assertTrue(cacheProvider.get(CacheMultiViewStateStore.REGION, "session1") instanceof byte[]);
+
+        // next request
+        DataTableState restored = (DataTableState) store.getStates(context, false).get(MultiViewStateKey.of("/index.xhtml", "form:table"));
+        assertEquals(30, restored.getFirst());
+    }
+
+    @Test
+    void concurrentRequestsAreMerged() {
+        store.getStates(context, true).put(MultiViewStateKey.of("/index.xhtml", "form:tabs"), "1");
+        store.getStates(context, true).put(MultiViewStateKey.of("/index.xhtml", "form:removed"), "1");
+        store.flush(context);
+
+        // two requests of the same session read the states at the same time
+        Map<MultiViewStateKey, Object> first = store.getStates(context, true);
+        Map<String, Object> firstRequestMap = new HashMap<>(requestMap);
+        requestMap.clear();
+        Map<MultiViewStateKey, Object> second = store.getStates(context, true);
+
+        second.put(MultiViewStateKey.of("/index.xhtml", "form:table"), "2");
+        second.remove(MultiViewStateKey.of("/index.xhtml", "form:removed"));
+        store.flush(context);
+
+        requestMap.putAll(firstRequestMap);
+        first.put(MultiViewStateKey.of("/index.xhtml", "form:tabs"), "3");
+        store.flush(context);
+
+        Map<MultiViewStateKey, Object> merged = store.getStates(context, false);
+        assertEquals(2, merged.size());
+        assertEquals("3", merged.get(MultiViewStateKey.of("/index.xhtml", "form:tabs")));
+        assertEquals("2", merged.get(MultiViewStateKey.of("/index.xhtml", "form:table")));
+    }
+
+    @Test
+    void usesDedicatedRegionLimit() {
+        store = new CacheMultiViewStateStore(() -> cacheProvider, 5000);
+        store.getStates(context, true).put(MultiViewStateKey.of("/index.xhtml", "form:tabs"), "1");
+        store.flush(context);
+
+        assertEquals(5000, ((DefaultCacheProvider) cacheProvider).getMaxSize(CacheMultiViewStateStore.REGION));
+    }
+
+    @Test
+    void clear() {
+        store.getStates(context, true).put(MultiViewStateKey.of("/index.xhtml", "form:tabs"), "2");
+        store.flush(context);
+
+        store.clear(context);
+
+        assertNull(cacheProvider.get(CacheMultiViewStateStore.REGION, "session1"));
+        assertTrue(store.getStates(context, false).isEmpty());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.multiviewstate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiViewStateKeyTest {
+
+    @Test
+    void restoresKeysOfPreviousVersions() throws Exception {
+        // the session of previous versions holds the states by org.primefaces.PrimeFaces$MVSKey
+        Class<?> legacyClass = Class.forName("org.primefaces.PrimeFaces$MVSKey");
+        Constructor<?> constructor = legacyClass.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        Object legacyKey = constructor.newInstance();
+        for (String name : new String[] {"viewId", "clientId"}) {
+            Field field = legacyClass.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(legacyKey, "viewId".equals(name) ? "/index.xhtml" : "form:table");
+        }
+        Map<Object, Object> states = new ConcurrentHashMap<>();
+        states.put(legacyKey, "state");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(states);
+        }
+        Map<?, ?> restored;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            restored = (Map<?, ?>) in.readObject();
+        }
+
+        assertEquals("state", restored.get(MultiViewStateKey.of("/index.xhtml", "form:table")));
+    }
+}
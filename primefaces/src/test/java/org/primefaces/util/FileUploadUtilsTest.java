@@ -40,6 +40,8 @@ import javax.faces.validator.ValidatorException;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Locale;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -159,6 +161,28 @@ class FileUploadUtilsTest {
                 createFile("test.png", "image/png", gif), null, "image/gif"));
     }
 
+    @Test
+    void isValidTypeContentTypeCheckLargeFile() throws IOException {
+        byte[] png = IOUtils.toByteArray(getClass().getClassLoader().getResourceAsStream("test.png"));
+        // only the beginning is used to detect the type, the rest must not matter
+        byte[] large = Arrays.copyOf(png, 1024 * 1024);
+        InputStream stream = new ByteArrayInputStream(large);
+
+        assertTrue(FileUploadUtils.isValidType(appContext,
+                createFile("test.png", "image/png", stream), null, "image/png"));
+        assertFalse(FileUploadUtils.isValidType(appContext,
+                createFile("test.png", "image/png", new ByteArrayInputStream(large)), null, "image/gif"));
+    }
+
+    @Test
+    void sha256Hex() throws IOException {
+        byte[] content = "abc".getBytes(StandardCharsets.US_ASCII);
+        String expected = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+        assertEquals(expected, FileUploadUtils.sha256Hex(content));
+        assertEquals(expected, FileUploadUtils.sha256Hex(new ByteArrayInputStream(content)));
+    }
+
     @Test
     void requireValidFilePath_AbsoluteFile() {
         // Unix systems can start with / but Windows cannot
@@ -0,0 +1,72 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringEncrypterTest {
+
+    private static final String EL = "#{imageView.image}";
+
+    @Test
+    void roundtrip() {
+        StringEncrypter encrypter = new StringEncrypter("secret");
+        String token = encrypter.encrypt(EL);
+
+        assertNotEquals(EL, token);
+        assertFalse(token.contains("+") || token.contains("/") || token.contains("="));
+        assertEquals(EL, encrypter.decrypt(token));
+    }
+
+    @Test
+    void deterministic() {
+        StringEncrypter encrypter = new StringEncrypter("secret");
+
+        assertEquals(encrypter.encrypt(EL), encrypter.encrypt(EL));
+        assertNotEquals(encrypter.encrypt(EL), encrypter.encrypt("#{imageView.other}"));
+    }
+
+    @Test
+    void sameSecretOnOtherNode() {
+        String token = new StringEncrypter("secret").encrypt(EL);
+
+        assertEquals(EL, new StringEncrypter("secret").decrypt(token));
+        assertNull(new StringEncrypter("other").decrypt(token));
+    }
+
+    @Test
+    void tamperedToken() {
+        StringEncrypter encrypter = StringEncrypter.withRandomKey();
+        char[] token = encrypter.encrypt(EL).toCharArray();
+        // not the last character, its low bits may only be padding
+        int index = token.length / 2;
+        token[index] = token[index] == 'A' ? 'B' : 'A';
+
+        assertNull(encrypter.decrypt(new String(token)));
+        assertNull(encrypter.decrypt("not-base64!"));
+        assertNull(encrypter.decrypt("AAAA"));
+        assertNull(encrypter.decrypt(null));
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2009-2024 PrimeTek Informatics
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.virusscan.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.primefaces.model.file.UploadedFile;
+import org.primefaces.virusscan.VirusException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClamDaemonClientTest {
+
+    private static final String EICAR = "X5O!P%@AP[4\\PZX54(P^)7CC)7}$EICAR-STANDARD-ANTIVIRUS-TEST-FILE!$H+H*";
+
+    private FakeClamDaemon clamd;
+    private ClamDaemonClient client;
+
+    @BeforeEach
+    void setup() throws IOException {
+        clamd = new FakeClamDaemon();
+        client = new ClamDaemonClient("localhost", clamd.getPort(), 5000, 16);
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        client.close();
+        clamd.close();
+    }
+
+    @Test
+    void scansReuseSession() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(ClamDaemonClient.isCleanReply(client.scan(("clean file " + i).getBytes(StandardCharsets.US_ASCII))));
+        }
+        byte[] reply = client.scan(EICAR.getBytes(StandardCharsets.US_ASCII));
+
+        assertFalse(ClamDaemonClient.isCleanReply(reply));
+        assertEquals("6: stream: Eicar-Test-Signature FOUND", new String(reply, StandardCharsets.US_ASCII));
+        assertEquals(1, clamd.connections.get());
+    }
+
+    @Test
+    void closedSessionIsReplaced() throws IOException {
+        clamd.endSessionAfterReply = true;
+
+        assertTrue(ClamDaemonClient.isCleanReply(client.scan("first".getBytes(StandardCharsets.US_ASCII))));
+        assertTrue(ClamDaemonClient.isCleanReply(client.scan("second".getBytes(StandardCharsets.US_ASCII))));
+        assertEquals(2, clamd.connections.get());
+    }
+
+    @Test
+    void withoutIdleConnections() throws IOException {
+        client = new ClamDaemonClient("localhost", clamd.getPort(), 5000, 16, 0);
+
+        assertTrue(ClamDaemonClient.isCleanReply(client.scan("first".getBytes(StandardCharsets.US_ASCII))));
+        assertTrue(ClamDaemonClient.isCleanReply(client.scan("second".getBytes(StandardCharsets.US_ASCII))));
+        assertEquals(2, clamd.connections.get());
+    }
+
+    @Test
+    void scanAsync() {
+        ClamDaemonScanner scanner = new ClamDaemonScanner() {
+            @Override
+            public ClamDaemonClient getClamAvClient() {
+                return client;
+            }
+
+            @Override
+            protected String createErrorMessage(UploadedFile file, String response) {
+                return response;
+            }
+        };
+        UploadedFile clean = mock(UploadedFile.class);
+        when(clean.getContent()).thenReturn("clean file".getBytes(StandardCharsets.US_ASCII));
+        UploadedFile infected = mock(UploadedFile.class);
+        when(infected.getContent()).thenReturn(EICAR.getBytes(StandardCharsets.US_ASCII));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<Runnable> cleanVerdict = scanner.scanAsync(clean, executor);
+            CompletableFuture<Runnable> infectedVerdict = scanner.scanAsync(infected, executor);
+
+            assertDoesNotThrow(() -> cleanVerdict.join().run());
+            VirusException ex = assertThrows(VirusException.class, () -> infectedVerdict.join().run());
+            assertTrue(ex.getMessage().contains("Eicar-Test-Signature FOUND"));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Speaks the subset of the clamd protocol used by the client: IDSESSION, INSTREAM and END.
+     */
+    private static final class FakeClamDaemon implements AutoCloseable {
+
+        private final ServerSocket serverSocket;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final AtomicInteger connections = new AtomicInteger();
+        private volatile boolean endSessionAfterReply;
+
+        private FakeClamDaemon() throws IOException {
+            serverSocket = new ServerSocket(0);
+            executor.execute(() -> {
+                while (!serverSocket.isClosed()) {
+                    try {
+                        Socket socket = serverSocket.accept();
+                        connections.incrementAndGet();
+                        executor.execute(() -> handle(socket));
+                    }
+                    catch (IOException e) {
+                        // closed
+                    }
+                }
+            });
+        }
+
+        private int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void handle(Socket socket) {
+            try (Socket s = socket;
+                 DataInputStream in = new DataInputStream(s.getInputStream());
+                 OutputStream out = s.getOutputStream()) {
+                if (!"zIDSESSION".equals(readCommand(in))) {
+                    return;
+                }
+                int id = 0;
+                String command = readCommand(in);
+                while ("zINSTREAM".equals(command)) {
+                    ByteArrayOutputStream data = new ByteArrayOutputStream();
+                    int length = in.readInt();
+                    while (length > 0) {
+                        byte[] chunk = new byte[length];
+                        in.readFully(chunk);
+                        data.write(chunk);
+                        length = in.readInt();
+                    }
+                    id++;
+                    String result = data.toString(StandardCharsets.US_ASCII).contains("EICAR") ? "Eicar-Test-Signature FOUND" : "OK";
+                    out.write((id + ": stream: " + result + "\0").getBytes(StandardCharsets.US_ASCII));
+                    out.flush();
+                    if (endSessionAfterReply) {
+                        return;
+                    }
+                    command = readCommand(in);
+                }
+            }
+            catch (IOException e) {
+                // client went away
+            }
+        }
+
+        private static String readCommand(InputStream in) throws IOException {
+            StringBuilder command = new StringBuilder();
+            int read = in.read();
+            while (read > 0) {
+                command.append((char) read);
+                read = in.read();
+            }
+            return command.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            executor.shutdownNow();
+        }
+    }
+}